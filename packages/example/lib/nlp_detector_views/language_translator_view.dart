@@ -88,7 +88,10 @@ class _LanguageTranslatorViewState extends State<LanguageTranslatorView> {
               SizedBox(height: 30),
               Row(mainAxisAlignment: MainAxisAlignment.center, children: [
                 ElevatedButton(
-                    onPressed: _translateText, child: Text('Translate'))
+                    onPressed: _translateText, child: Text('Translate')),
+                SizedBox(width: 20),
+                ElevatedButton(
+                    onPressed: _measureLatency, child: Text('Measure'))
               ]),
               SizedBox(height: 20),
               Row(
@@ -236,4 +239,32 @@ class _LanguageTranslatorViewState extends State<LanguageTranslatorView> {
         context,
         this);
   }
+
+  Future<void> _measureLatency() async {
+    FocusScope.of(context).unfocus();
+    Toast().show('Measuring...', _coldAndWarmLatency(), context, this);
+  }
+
+  // The first translation of a language pair checks that its models are downloaded, later ones skip the check.
+  // Every text is different, so the translation cache does not hide the translation itself.
+  Future<String> _coldAndWarmLatency() async {
+    const runs = 10;
+    final text = _controller.text.isEmpty ? 'Good morning' : _controller.text;
+    final translator = OnDeviceTranslator(
+        sourceLanguage: _sourceLanguage, targetLanguage: _targetLanguage);
+    try {
+      final cold = Stopwatch()..start();
+      await translator.translateText('$text 0');
+      cold.stop();
+      final warm = Stopwatch()..start();
+      for (var i = 1; i <= runs; i++) {
+        await translator.translateText('$text $i');
+      }
+      warm.stop();
+      return 'first: ${cold.elapsedMilliseconds} ms, '
+          'then: ${warm.elapsedMilliseconds ~/ runs} ms';
+    } finally {
+      await translator.close();
+    }
+  }
 }
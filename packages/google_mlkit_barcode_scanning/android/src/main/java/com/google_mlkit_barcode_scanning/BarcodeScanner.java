@@ -11,7 +11,11 @@ import com.google.mlkit.vision.barcode.common.Barcode;
 import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
 import com.google.mlkit.vision.barcode.BarcodeScanning;
 import com.google.mlkit.vision.common.InputImage;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.DetectorScheduler;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
+import com.google_mlkit_commons.RequestTracker;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -22,12 +26,12 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-public class BarcodeScanner implements MethodChannel.MethodCallHandler {
+public class BarcodeScanner implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startBarcodeScanner";
     private static final String CLOSE = "vision#closeBarcodeScanner";
 
     private final Context context;
-    private final Map<String, com.google.mlkit.vision.barcode.BarcodeScanner> instances = new HashMap<>();
+    private final ClientLifecycleManager<com.google.mlkit.vision.barcode.BarcodeScanner> instances = new ClientLifecycleManager<>();
 
     public BarcodeScanner(Context context) {
         this.context = context;
@@ -38,7 +42,11 @@ public class BarcodeScanner implements MethodChannel.MethodCallHandler {
         String method = call.method;
         switch (method) {
             case START:
-                handleDetection(call, result);
+                MethodChannel.Result trackedResult = RequestTracker.track(call, result);
+                if (trackedResult != null) {
+                    DetectorScheduler.getInstance().schedule(this, call, trackedResult,
+                            scheduledResult -> handleDetection(call, scheduledResult));
+                }
                 break;
             case CLOSE:
                 closeDetector(call);
@@ -70,6 +78,11 @@ public class BarcodeScanner implements MethodChannel.MethodCallHandler {
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         com.google.mlkit.vision.barcode.BarcodeScanner barcodeScanner = instances.get(id);
         if (barcodeScanner == null) {
@@ -77,8 +90,12 @@ public class BarcodeScanner implements MethodChannel.MethodCallHandler {
             instances.put(id, barcodeScanner);
         }
 
-        barcodeScanner.process(inputImage)
+        final com.google.mlkit.vision.barcode.BarcodeScanner client = barcodeScanner;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
                 .addOnSuccessListener(barcodes -> {
+                    if (RequestTracker.skipIfCancelled(result)) return;
                     List<Map<String, Object>> barcodeList = new ArrayList<>(barcodes.size());
                     for (Barcode barcode : barcodes) {
 
@@ -215,9 +232,10 @@ public class BarcodeScanner implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.barcode.BarcodeScanner barcodeScanner = instances.get(id);
-        if (barcodeScanner == null) return;
-        barcodeScanner.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 }
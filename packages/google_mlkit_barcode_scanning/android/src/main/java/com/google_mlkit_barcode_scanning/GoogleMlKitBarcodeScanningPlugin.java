@@ -2,21 +2,29 @@ package com.google_mlkit_barcode_scanning;
 
 import androidx.annotation.NonNull;
 
+import com.google_mlkit_commons.DetectorRegistry;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitBarcodeScanningPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private BarcodeScanner detector;
+    private static final String detectorName = "barcode";
     private static final String channelName = "google_mlkit_barcode_scanning";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new BarcodeScanner(flutterPluginBinding.getApplicationContext()));
+        detector = new BarcodeScanner(flutterPluginBinding.getApplicationContext());
+        channel.setMethodCallHandler(detector);
+        DetectorRegistry.register(detectorName, detector);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        DetectorRegistry.unregister(detectorName);
+        detector.dispose();
     }
 }
@@ -19,13 +19,31 @@ class BarcodeScanner {
   BarcodeScanner({this.formats = const [BarcodeFormat.all]});
 
   /// Processes the given [InputImage] for barcode scanning. Returns a list of [Barcode].
-  Future<List<Barcode>> processImage(InputImage inputImage) async {
+  /// Pass a [requestId] to be able to cancel the request with [DetectionRequests.cancel].
+  Future<List<Barcode>> processImage(InputImage inputImage,
+      {String? requestId}) async {
     final result = await _channel.invokeMethod('vision#startBarcodeScanner', {
       'formats': formats.map((f) => f.rawValue).toList(),
       'id': id,
-      'imageData': inputImage.toJson()
+      'imageData': inputImage.toJson(),
+      if (requestId != null) 'requestId': requestId,
     });
 
+    return _parseBarcodes(result);
+  }
+
+  /// Returns a [PipelineStage] to run this scanner as part of a [DetectionPipeline].
+  PipelineStage<List<Barcode>> get pipelineStage => PipelineStage(
+      detector: 'barcode',
+      arguments: {'formats': formats.map((f) => f.rawValue).toList(), 'id': id},
+      parse: (json) => _parseBarcodes(json));
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
+  static List<Barcode> _parseBarcodes(dynamic result) {
     final barcodesList = <Barcode>[];
     for (final dynamic json in result) {
       barcodesList.add(Barcode.fromJson(json));
@@ -0,0 +1,213 @@
+package com.google_mlkit_commons;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.google.mlkit.vision.common.InputImage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+//Processes a list of images with a single detector.
+//Images are decoded in the background with bounded parallelism and handed to the detector as soon as they are ready,
+//so decoding of the next images overlaps with inference of the previous ones. Decoding runs on a pool shared by the batches
+//of all plugins, each batch decodes at most parallelism images at a time and keeps at most twice as many decoded or
+//decoding before the detector is done with them. Inference goes through [DetectorScheduler],
+//pass "priority": "background" to let interactive requests go first. Every item is pushed to dart through
+//[ResultStream] when it completes, the method call itself replies with a summary once the whole batch is done.
+public class BatchImageProcessor {
+    private static final int DEFAULT_PARALLELISM = 2;
+    private static final int DECODE_THREADS = 4;
+    private static final long DECODE_THREAD_KEEP_ALIVE_SECONDS = 30;
+    //Shared by the processors of all plugins, its threads stop once no batch has been running for a while.
+    private static final ThreadPoolExecutor decodeExecutor = createDecodeExecutor();
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean disposed;
+
+    public BatchImageProcessor(Context context) {
+        this.context = context;
+    }
+
+    private static ThreadPoolExecutor createDecodeExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DECODE_THREADS, DECODE_THREADS,
+                DECODE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    //Called when the plugin is detached from the engine, images of running batches not decoded yet fail.
+    public void dispose() {
+        disposed = true;
+    }
+
+    public void process(final MethodCall call, final ImageDetector detector, final MethodChannel.Result result) {
+        final String batchId = call.argument("batchId");
+        final List<Map<String, Object>> images = call.argument("images");
+        if (batchId == null || images == null) {
+            result.error("BatchImageProcessorError", "Invalid arguments", null);
+            return;
+        }
+        if (disposed) {
+            result.error("BatchImageProcessorError", "Processor has been disposed", null);
+            return;
+        }
+        if (images.isEmpty()) {
+            result.success(summary(0, 0, 0));
+            return;
+        }
+
+        Integer parallelismArgument = call.argument("parallelism");
+        int parallelism = parallelismArgument != null && parallelismArgument > 0 ? parallelismArgument : DEFAULT_PARALLELISM;
+
+        submitReady(new Batch(batchId, images, parallelism, call, detector, result));
+    }
+
+    //Starts decoding as many images as the batch allows, called again whenever a decode or an item completes.
+    private void submitReady(final Batch batch) {
+        int index;
+        while ((index = batch.startDecode()) >= 0) {
+            final int item = index;
+            decodeExecutor.execute(() -> decode(batch, item));
+        }
+    }
+
+    private void decode(final Batch batch, final int index) {
+        final ItemResult itemResult = new ItemResult(batch, index, () -> submitReady(batch));
+        if (disposed) {
+            batch.decoded();
+            itemResult.error("BatchImageProcessorError", "Processor has been disposed", null);
+            return;
+        }
+        long decodeStart = SystemClock.elapsedRealtime();
+        final InputImage inputImage = InputImageConverter.getInputImageFromData(batch.images.get(index), context, itemResult);
+        itemResult.decodeMillis = SystemClock.elapsedRealtime() - decodeStart;
+        batch.decoded();
+        //A failed conversion has already been reported to itemResult.
+        if (inputImage != null) {
+            DetectorScheduler.getInstance().schedule(batch.detector, batch.call, itemResult, scheduledResult -> {
+                itemResult.processStart = SystemClock.elapsedRealtime();
+                batch.detector.process(inputImage, batch.call, scheduledResult);
+            });
+        }
+        submitReady(batch);
+    }
+
+    private static Map<String, Object> summary(int count, int failed, long totalMillis) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("count", count);
+        summary.put("failed", failed);
+        summary.put("totalMillis", totalMillis);
+        return summary;
+    }
+
+    private class Batch {
+        final String batchId;
+        final List<Map<String, Object>> images;
+        final int count;
+        final int parallelism;
+        final MethodCall call;
+        final ImageDetector detector;
+        final MethodChannel.Result result;
+        final long start = SystemClock.elapsedRealtime();
+        int submitted;
+        int decoding;
+        int completed;
+        int failed;
+
+        Batch(String batchId, List<Map<String, Object>> images, int parallelism, MethodCall call, ImageDetector detector,
+              MethodChannel.Result result) {
+            this.batchId = batchId;
+            this.images = images;
+            this.count = images.size();
+            this.parallelism = parallelism;
+            this.call = call;
+            this.detector = detector;
+            this.result = result;
+        }
+
+        //Returns the index of the next image to decode, -1 if all of them have been submitted or none may start now.
+        //Decoded images waiting for the detector count against the limit, so memory stays bounded for large batches.
+        synchronized int startDecode() {
+            if (submitted == count || decoding >= parallelism || submitted - completed >= 2 * parallelism) return -1;
+            decoding++;
+            return submitted++;
+        }
+
+        synchronized void decoded() {
+            decoding--;
+        }
+
+        synchronized void complete(Map<String, Object> item, boolean success) {
+            ResultStream.emit(batchId, item);
+            completed++;
+            if (!success) failed++;
+            if (completed == count) {
+                final Map<String, Object> summary = summary(count, failed, SystemClock.elapsedRealtime() - start);
+                mainHandler.post(() -> result.success(summary));
+            }
+        }
+    }
+
+    //Result of a single item, reports decoding errors as well as the detector result.
+    private static class ItemResult implements MethodChannel.Result {
+        final Batch batch;
+        final int index;
+        final Runnable onComplete;
+        long decodeMillis;
+        long processStart;
+        private boolean done;
+
+        ItemResult(Batch batch, int index, Runnable onComplete) {
+            this.batch = batch;
+            this.index = index;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        public void success(Object o) {
+            Map<String, Object> item = create("success");
+            item.put("result", o);
+            complete(item, true);
+        }
+
+        @Override
+        public void error(String errorCode, String errorMessage, Object errorDetails) {
+            Map<String, Object> item = create("error");
+            item.put("code", errorCode);
+            item.put("message", errorMessage);
+            complete(item, false);
+        }
+
+        @Override
+        public void notImplemented() {
+            error("BatchImageProcessorError", "Not implemented", null);
+        }
+
+        private Map<String, Object> create(String status) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("index", index);
+            item.put("status", status);
+            item.put("decodeMillis", decodeMillis);
+            item.put("processMillis", processStart > 0 ? SystemClock.elapsedRealtime() - processStart : 0);
+            return item;
+        }
+
+        private synchronized void complete(Map<String, Object> item, boolean success) {
+            if (done) return;
+            done = true;
+            batch.complete(item, success);
+            if (onComplete != null) onComplete.run();
+        }
+    }
+}
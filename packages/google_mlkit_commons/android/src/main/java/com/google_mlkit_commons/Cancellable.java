@@ -0,0 +1,6 @@
+package com.google_mlkit_commons;
+
+//Implemented by the results wrapped by [RequestTracker] and [DetectorScheduler], so a cancellation can be seen through any wrapper.
+interface Cancellable {
+    boolean isCancelled();
+}
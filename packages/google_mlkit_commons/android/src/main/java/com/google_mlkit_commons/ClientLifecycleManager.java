@@ -0,0 +1,278 @@
+package com.google_mlkit_commons;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//The clients of a plugin keyed by instance id, used in place of a plain map so that idle clients do not hold their models forever.
+//A client not used for the idle timeout is closed, clients are also released when the system asks to trim memory.
+//Plugins create their clients from the arguments of every call, so a closed client is created again on its next use.
+//Plugins call [closeAll] when they are detached from the engine.
+//A client is pinned with [acquire] while a task runs on it and is not considered idle until it is released.
+//A client created by [DetectorWarmUp] is kept for one idle timeout after the warm-up even under memory pressure,
+//unless the system is about to kill the process. Its first request turns it into a regular client.
+public class ClientLifecycleManager<T extends Closeable> {
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    //Clients used more recently than this are kept on memory pressure, they are most likely serving a live stream.
+    private static final long MIN_IDLE_ON_TRIM_MILLIS = 1000;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    //Managers currently holding at least one client.
+    private static final Set<ClientLifecycleManager<?>> managers = new HashSet<>();
+    private static volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private static long idleEvictions;
+    private static long trimEvictions;
+
+    public interface OnClosedListener<T> {
+        void onClosed(T client);
+    }
+
+    private static class Entry<T> {
+        final T client;
+        long lastUsed = SystemClock.elapsedRealtime();
+        int references;
+        //Created by a warm-up and not used by a request since, kept until warmUpUntil unless memory runs out.
+        boolean warmUp;
+        long warmUpUntil;
+
+        Entry(T client) {
+            this.client = client;
+        }
+    }
+
+    private final Map<String, Entry<T>> clients = new HashMap<>();
+    private final OnClosedListener<T> onClosedListener;
+    private final Runnable sweep = this::sweep;
+    private boolean sweepScheduled;
+
+    public ClientLifecycleManager() {
+        this(null);
+    }
+
+    //The listener is called for every client closed by the manager, to drop state kept about it elsewhere.
+    public ClientLifecycleManager(OnClosedListener<T> onClosedListener) {
+        this.onClosedListener = onClosedListener;
+    }
+
+    //Returns the client for the id and marks it as used, null if there is none or it has been closed.
+    public synchronized T get(String id) {
+        Entry<T> entry = clients.get(id);
+        if (entry == null) return null;
+        entry.lastUsed = SystemClock.elapsedRealtime();
+        entry.warmUp = false;
+        return entry.client;
+    }
+
+    public synchronized void put(String id, T client) {
+        Entry<T> previous = clients.get(id);
+        if (previous != null && previous.client == client) {
+            previous.lastUsed = SystemClock.elapsedRealtime();
+            return;
+        }
+        clients.put(id, new Entry<>(client));
+        if (previous != null) close(previous.client);
+        synchronized (ClientLifecycleManager.class) {
+            managers.add(this);
+        }
+        scheduleSweep(idleTimeoutMillis);
+    }
+
+    //Pins the client of the id while a task runs on it, every acquire has to be followed by a release.
+    //Does nothing if the client is no longer the one kept for the id.
+    public synchronized void acquire(String id, T client) {
+        Entry<T> entry = clients.get(id);
+        if (entry == null || entry.client != client) return;
+        entry.references++;
+    }
+
+    //Unpins the client, its idle time starts when the last task on it completes.
+    public synchronized void release(String id, T client) {
+        Entry<T> entry = clients.get(id);
+        if (entry == null || entry.client != client || entry.references == 0) return;
+        entry.references--;
+        entry.lastUsed = SystemClock.elapsedRealtime();
+        scheduleSweep(idleTimeoutMillis);
+    }
+
+    public synchronized void close(String id) {
+        Entry<T> entry = clients.remove(id);
+        if (entry != null) close(entry.client);
+        unregisterIfEmpty();
+    }
+
+    public synchronized void closeAll() {
+        for (Entry<T> entry : clients.values()) {
+            close(entry.client);
+        }
+        clients.clear();
+        unregisterIfEmpty();
+    }
+
+    //Closes the clients not used for at least minIdleMillis, returns how many were closed.
+    //Pinned clients are kept, so are warmed up clients within their grace period unless includeWarmUps is set.
+    synchronized int closeIdle(long minIdleMillis, boolean includeWarmUps) {
+        long now = SystemClock.elapsedRealtime();
+        int closed = 0;
+        Iterator<Entry<T>> iterator = clients.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.references > 0) continue;
+            if (!(entry.warmUp && includeWarmUps)) {
+                if (entry.warmUp && now < entry.warmUpUntil) continue;
+                if (now - entry.lastUsed < minIdleMillis) continue;
+            }
+            iterator.remove();
+            close(entry.client);
+            closed++;
+        }
+        unregisterIfEmpty();
+        return closed;
+    }
+
+    synchronized int closeIdle(long minIdleMillis) {
+        return closeIdle(minIdleMillis, false);
+    }
+
+    private synchronized void sweep() {
+        sweepScheduled = false;
+        long timeout = idleTimeoutMillis;
+        if (timeout <= 0 || clients.isEmpty()) return;
+        int closed = closeIdle(timeout);
+        synchronized (ClientLifecycleManager.class) {
+            idleEvictions += closed;
+        }
+
+        //Runs again when the least recently used client left reaches the timeout or a warm-up grace period ends.
+        long now = SystemClock.elapsedRealtime();
+        long nextExpiry = Long.MAX_VALUE;
+        for (Entry<T> entry : clients.values()) {
+            //Released clients schedule the sweep again.
+            if (entry.references > 0) continue;
+            long expiry = entry.warmUp ? Math.max(entry.lastUsed + timeout, entry.warmUpUntil) : entry.lastUsed + timeout;
+            nextExpiry = Math.min(nextExpiry, expiry - now);
+        }
+        if (nextExpiry != Long.MAX_VALUE) scheduleSweep(Math.max(nextExpiry, 0));
+    }
+
+    private void scheduleSweep(long delayMillis) {
+        if (sweepScheduled || idleTimeoutMillis <= 0) return;
+        sweepScheduled = true;
+        mainHandler.postDelayed(sweep, delayMillis);
+    }
+
+    private void unregisterIfEmpty() {
+        if (!clients.isEmpty()) return;
+        mainHandler.removeCallbacks(sweep);
+        sweepScheduled = false;
+        synchronized (ClientLifecycleManager.class) {
+            managers.remove(this);
+        }
+    }
+
+    private void close(T client) {
+        if (onClosedListener != null) onClosedListener.onClosed(client);
+        try {
+            client.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    //Sets the idle timeout of all clients, 0 disables idle eviction.
+    public static void setIdleTimeout(long millis) {
+        List<ClientLifecycleManager<?>> current;
+        synchronized (ClientLifecycleManager.class) {
+            idleTimeoutMillis = Math.max(millis, 0);
+            current = new ArrayList<>(managers);
+        }
+        for (ClientLifecycleManager<?> manager : current) {
+            synchronized (manager) {
+                mainHandler.removeCallbacks(manager.sweep);
+                manager.sweepScheduled = false;
+                manager.scheduleSweep(0);
+            }
+        }
+    }
+
+    //Marks the client of the id as warmed up, it is kept for one idle timeout unless a request uses it earlier.
+    static void onWarmedUp(String id) {
+        List<ClientLifecycleManager<?>> current;
+        synchronized (ClientLifecycleManager.class) {
+            current = new ArrayList<>(managers);
+        }
+        long warmUpUntil = SystemClock.elapsedRealtime() + idleTimeoutMillis;
+        for (ClientLifecycleManager<?> manager : current) {
+            synchronized (manager) {
+                Entry<?> entry = manager.clients.get(id);
+                if (entry == null) continue;
+                entry.warmUp = true;
+                entry.warmUpUntil = warmUpUntil;
+            }
+        }
+    }
+
+    //Warmed up clients are only closed when the process is about to be killed, they are cheap to create again then.
+    private static void trim(boolean includeWarmUps) {
+        List<ClientLifecycleManager<?>> current;
+        synchronized (ClientLifecycleManager.class) {
+            current = new ArrayList<>(managers);
+        }
+        int closed = 0;
+        for (ClientLifecycleManager<?> manager : current) {
+            closed += manager.closeIdle(MIN_IDLE_ON_TRIM_MILLIS, includeWarmUps);
+        }
+        synchronized (ClientLifecycleManager.class) {
+            trimEvictions += closed;
+        }
+    }
+
+    public static Map<String, Object> getStats() {
+        List<ClientLifecycleManager<?>> current;
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (ClientLifecycleManager.class) {
+            current = new ArrayList<>(managers);
+            stats.put("idleTimeoutMillis", idleTimeoutMillis);
+            stats.put("idleEvictions", idleEvictions);
+            stats.put("trimEvictions", trimEvictions);
+        }
+        int clients = 0;
+        for (ClientLifecycleManager<?> manager : current) {
+            synchronized (manager) {
+                clients += manager.clients.size();
+            }
+        }
+        stats.put("clients", clients);
+        return stats;
+    }
+
+    //Registered with the application context by the commons plugin.
+    static final ComponentCallbacks2 componentCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= TRIM_MEMORY_COMPLETE) trim(true);
+            else if (level >= TRIM_MEMORY_RUNNING_LOW) trim(false);
+        }
+
+        @Override
+        public void onLowMemory() {
+            trim(true);
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration configuration) {
+        }
+    };
+}
@@ -0,0 +1,116 @@
+package com.google_mlkit_commons;
+
+import android.content.Context;
+
+import com.google.mlkit.vision.common.InputImage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+//Runs several detectors on a single frame: the image is converted once and dispatched to every requested detector,
+//the results are sent back to dart in one reply. A pipeline cancelled through [RequestTracker] stops dispatching stages,
+//the stages already running skip serializing their results.
+public class DetectionPipeline {
+    private final Context context;
+
+    public DetectionPipeline(Context context) {
+        this.context = context;
+    }
+
+    public void process(MethodCall call, final MethodChannel.Result result) {
+        Map<String, Object> imageData = call.argument("imageData");
+        List<Map<String, Object>> detectors = call.argument("detectors");
+        if (imageData == null || detectors == null || detectors.isEmpty()) {
+            result.error("DetectionPipelineError", "Invalid arguments", null);
+            return;
+        }
+
+        if (!RequestTracker.start(result)) return;
+        InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
+        if (inputImage == null) return;
+
+        final PipelineReply reply = new PipelineReply(detectors.size(), result);
+        for (int i = 0; i < detectors.size(); i++) {
+            if (RequestTracker.skipIfCancelled(result)) return;
+            Map<String, Object> arguments = detectors.get(i);
+            String name = (String) arguments.get("detector");
+            MethodChannel.Result stageResult = reply.stage(i, name, (String) arguments.get("id"));
+            ImageDetector detector = DetectorRegistry.get(name);
+            if (detector == null) {
+                stageResult.error("DetectionPipelineError", "Detector not registered: " + name, null);
+                continue;
+            }
+            //Stages are scheduled like requests of their own detector, so they follow its priority and its limit in flight.
+            final MethodCall stageCall = new MethodCall(call.method, arguments);
+            DetectorScheduler.getInstance().schedule(detector, stageCall, stageResult,
+                    scheduledResult -> detector.process(inputImage, stageCall, scheduledResult));
+        }
+    }
+
+    //Collects the result of every stage and replies once all of them have completed.
+    private static class PipelineReply {
+        private final List<Map<String, Object>> stages;
+        private final MethodChannel.Result result;
+        private int pending;
+
+        PipelineReply(int size, MethodChannel.Result result) {
+            this.stages = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) stages.add(null);
+            this.pending = size;
+            this.result = result;
+        }
+
+        MethodChannel.Result stage(final int index, final String detector, final String id) {
+            return new StageResult() {
+                @Override
+                public boolean isCancelled() {
+                    return result instanceof Cancellable && ((Cancellable) result).isCancelled();
+                }
+
+                @Override
+                public void success(Object o) {
+                    Map<String, Object> stage = create(detector, id, "success");
+                    stage.put("result", o);
+                    complete(index, stage);
+                }
+
+                @Override
+                public void error(String errorCode, String errorMessage, Object errorDetails) {
+                    Map<String, Object> stage = create(detector, id, "error");
+                    stage.put("code", errorCode);
+                    stage.put("message", errorMessage);
+                    complete(index, stage);
+                }
+
+                @Override
+                public void notImplemented() {
+                    error("DetectionPipelineError", "Not implemented: " + detector, null);
+                }
+            };
+        }
+
+        private Map<String, Object> create(String detector, String id, String status) {
+            Map<String, Object> stage = new HashMap<>();
+            stage.put("detector", detector);
+            stage.put("id", id);
+            stage.put("status", status);
+            return stage;
+        }
+
+        private synchronized void complete(int index, Map<String, Object> stage) {
+            if (stages.get(index) != null) return;
+            stages.set(index, stage);
+            pending--;
+            if (pending == 0 && !RequestTracker.skipIfCancelled(result)) result.success(stages);
+        }
+    }
+
+    //Lets the detectors see the cancellation of the whole pipeline through [RequestTracker.skipIfCancelled].
+    private interface StageResult extends MethodChannel.Result, Cancellable {
+    }
+}
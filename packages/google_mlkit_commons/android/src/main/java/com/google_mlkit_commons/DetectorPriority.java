@@ -0,0 +1,22 @@
+package com.google_mlkit_commons;
+
+//Scheduling class of a detector, see [DetectorScheduler].
+public enum DetectorPriority {
+    INTERACTIVE,
+    NORMAL,
+    BACKGROUND;
+
+    public static DetectorPriority fromName(String name, DetectorPriority defaultPriority) {
+        if (name == null) return defaultPriority;
+        switch (name) {
+            case "interactive":
+                return INTERACTIVE;
+            case "normal":
+                return NORMAL;
+            case "background":
+                return BACKGROUND;
+            default:
+                return defaultPriority;
+        }
+    }
+}
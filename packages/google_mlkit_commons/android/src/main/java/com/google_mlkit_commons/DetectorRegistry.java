@@ -0,0 +1,58 @@
+package com.google_mlkit_commons;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//Keeps track of the [ImageDetector]s registered by the vision plugins, keyed by detector name (e.g. "face", "pose", "barcode"),
+//together with the priority and the limit of requests in flight used by [DetectorScheduler] for their requests.
+public class DetectorRegistry {
+    private static final Map<String, ImageDetector> detectors = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, DetectorPriority> priorities = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> maxInFlight = new ConcurrentHashMap<>();
+
+    public static void register(String name, ImageDetector detector) {
+        register(name, detector, DetectorPriority.NORMAL);
+    }
+
+    public static void register(String name, ImageDetector detector, DetectorPriority priority) {
+        detectors.put(name, detector);
+        priorities.putIfAbsent(name, priority);
+    }
+
+    public static void unregister(String name) {
+        detectors.remove(name);
+    }
+
+    public static ImageDetector get(String name) {
+        return detectors.get(name);
+    }
+
+    public static void setPriority(String name, DetectorPriority priority) {
+        priorities.put(name, priority);
+    }
+
+    public static void setMaxInFlight(String name, int max) {
+        maxInFlight.put(name, Math.max(max, 1));
+    }
+
+    public static int getMaxInFlight(ImageDetector detector, int defaultMax) {
+        for (Map.Entry<String, ImageDetector> entry : detectors.entrySet()) {
+            if (entry.getValue() == detector) {
+                Integer max = maxInFlight.get(entry.getKey());
+                return max != null ? max : defaultMax;
+            }
+        }
+        return defaultMax;
+    }
+
+    public static DetectorPriority getPriority(ImageDetector detector) {
+        for (Map.Entry<String, ImageDetector> entry : detectors.entrySet()) {
+            if (entry.getValue() == detector) {
+                DetectorPriority priority = priorities.get(entry.getKey());
+                return priority != null ? priority : DetectorPriority.NORMAL;
+            }
+        }
+        return DetectorPriority.NORMAL;
+    }
+}
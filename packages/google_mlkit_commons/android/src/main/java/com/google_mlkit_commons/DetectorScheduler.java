@@ -0,0 +1,193 @@
+package com.google_mlkit_commons;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+//Orders detection requests of all vision plugins by [DetectorPriority].
+//Interactive requests always run first. While interactive requests are active (running, queued or seen recently),
+//only a single background request may run at a time. Each detector has its own limit of requests in flight, so a busy stream
+//of one detector does not hold back the requests of the others. Latencies are recorded per priority class.
+public class DetectorScheduler {
+    public interface Task {
+        void run(MethodChannel.Result result);
+    }
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 3;
+    private static final int BACKGROUND_IN_FLIGHT_WHILE_INTERACTIVE = 1;
+    private static final long INTERACTIVE_WINDOW_MILLIS = 500;
+
+    private static final DetectorScheduler instance = new DetectorScheduler();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final EnumMap<DetectorPriority, ArrayDeque<Job>> queues = new EnumMap<>(DetectorPriority.class);
+    private final EnumMap<DetectorPriority, LatencyHistogram> latencies = new EnumMap<>(DetectorPriority.class);
+    private final EnumMap<DetectorPriority, LatencyHistogram> waits = new EnumMap<>(DetectorPriority.class);
+    private final Map<ImageDetector, Integer> detectorInFlight = new HashMap<>();
+    private int inFlight;
+    private int interactiveInFlight;
+    private int backgroundInFlight;
+    private long lastInteractive = -INTERACTIVE_WINDOW_MILLIS;
+
+    public static DetectorScheduler getInstance() {
+        return instance;
+    }
+
+    private DetectorScheduler() {
+        for (DetectorPriority priority : DetectorPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            latencies.put(priority, new LatencyHistogram());
+            waits.put(priority, new LatencyHistogram());
+        }
+    }
+
+    //Queues the request, the priority comes from the "priority" argument of the call if present, otherwise from the registration of the detector.
+    public void schedule(ImageDetector detector, MethodCall call, MethodChannel.Result result, Task task) {
+        schedule(detector, DetectorPriority.fromName(call.argument("priority"), DetectorRegistry.getPriority(detector)), result, task);
+    }
+
+    public void schedule(ImageDetector detector, DetectorPriority priority, MethodChannel.Result result, Task task) {
+        synchronized (this) {
+            queues.get(priority).add(new Job(detector, priority, result, task));
+            if (priority == DetectorPriority.INTERACTIVE) lastInteractive = SystemClock.elapsedRealtime();
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) dispatch();
+        else mainHandler.post(this::dispatch);
+    }
+
+    private void dispatch() {
+        Job job;
+        while ((job = next()) != null) {
+            if (!RequestTracker.start(job.result)) {
+                job.finish();
+                continue;
+            }
+            try {
+                job.task.run(job);
+            } catch (Exception e) {
+                job.error("DetectorSchedulerError", e.toString(), null);
+            }
+        }
+    }
+
+    //Returns the oldest job of the highest priority whose detector is below its limit.
+    private synchronized Job next() {
+        for (DetectorPriority priority : DetectorPriority.values()) {
+            ArrayDeque<Job> queue = queues.get(priority);
+            if (queue.isEmpty()) continue;
+            if (priority == DetectorPriority.BACKGROUND && isInteractiveActive()
+                    && backgroundInFlight >= BACKGROUND_IN_FLIGHT_WHILE_INTERACTIVE) {
+                return null;
+            }
+            Iterator<Job> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                Job job = iterator.next();
+                int running = getInFlight(job.detector);
+                if (running >= DetectorRegistry.getMaxInFlight(job.detector, DEFAULT_MAX_IN_FLIGHT)) continue;
+                iterator.remove();
+                job.started = SystemClock.elapsedRealtime();
+                waits.get(priority).record(job.started - job.queued);
+                detectorInFlight.put(job.detector, running + 1);
+                inFlight++;
+                if (priority == DetectorPriority.INTERACTIVE) interactiveInFlight++;
+                if (priority == DetectorPriority.BACKGROUND) backgroundInFlight++;
+                return job;
+            }
+        }
+        return null;
+    }
+
+    private int getInFlight(ImageDetector detector) {
+        Integer running = detectorInFlight.get(detector);
+        return running != null ? running : 0;
+    }
+
+    private boolean isInteractiveActive() {
+        return interactiveInFlight > 0
+                || !queues.get(DetectorPriority.INTERACTIVE).isEmpty()
+                || SystemClock.elapsedRealtime() - lastInteractive < INTERACTIVE_WINDOW_MILLIS;
+    }
+
+    private synchronized void complete(Job job) {
+        int running = getInFlight(job.detector) - 1;
+        if (running > 0) detectorInFlight.put(job.detector, running);
+        else detectorInFlight.remove(job.detector);
+        inFlight--;
+        if (job.priority == DetectorPriority.INTERACTIVE) interactiveInFlight--;
+        if (job.priority == DetectorPriority.BACKGROUND) backgroundInFlight--;
+        latencies.get(job.priority).record(SystemClock.elapsedRealtime() - job.queued);
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        for (DetectorPriority priority : DetectorPriority.values()) {
+            Map<String, Object> classStats = new HashMap<>();
+            classStats.put("queued", queues.get(priority).size());
+            classStats.put("latency", latencies.get(priority).toMap());
+            classStats.put("wait", waits.get(priority).toMap());
+            stats.put(priority.name().toLowerCase(), classStats);
+        }
+        stats.put("inFlight", inFlight);
+        return stats;
+    }
+
+    private class Job implements MethodChannel.Result, Cancellable {
+        final ImageDetector detector;
+        final DetectorPriority priority;
+        final MethodChannel.Result result;
+        final Task task;
+        final long queued = SystemClock.elapsedRealtime();
+        //Written under the scheduler lock in next(), read by finish() from any thread.
+        volatile long started;
+        private boolean done;
+
+        Job(ImageDetector detector, DetectorPriority priority, MethodChannel.Result result, Task task) {
+            this.detector = detector;
+            this.priority = priority;
+            this.result = result;
+            this.task = task;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return result instanceof Cancellable && ((Cancellable) result).isCancelled();
+        }
+
+        @Override
+        public void success(Object o) {
+            if (finish()) result.success(o);
+        }
+
+        @Override
+        public void error(String errorCode, String errorMessage, Object errorDetails) {
+            if (finish()) result.error(errorCode, errorMessage, errorDetails);
+        }
+
+        @Override
+        public void notImplemented() {
+            if (finish()) result.notImplemented();
+        }
+
+        //Frees the slot of the job and lets the next one run, returns false if the job was already finished.
+        boolean finish() {
+            synchronized (this) {
+                if (done) return false;
+                done = true;
+            }
+            if (started > 0) {
+                complete(this);
+                mainHandler.post(DetectorScheduler.this::dispatch);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.google_mlkit_commons;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.SystemClock;
+
+import com.google.mlkit.vision.common.InputImage;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+//Runs a detector once on a small blank image, so the client is created and its model initialized before the first real frame.
+//The client is kept by the detector under the instance id of the call, later requests with the same id reuse it.
+//The warm-up is scheduled with background priority and can be cancelled like any tracked request.
+//The client is kept through memory trimming and idle sweeps until it serves its first request.
+public class DetectorWarmUp {
+    private static final int IMAGE_SIZE = 256;
+
+    public static void preload(String name, MethodCall call, final MethodChannel.Result result) {
+        ImageDetector detector = DetectorRegistry.get(name);
+        if (detector == null) {
+            result.error("DetectorWarmUpError", "Detector not registered: " + name, null);
+            return;
+        }
+
+        MethodChannel.Result trackedResult = RequestTracker.track(call, result);
+        if (trackedResult == null) return;
+        //Warm-ups run as background requests, so they do not compete with the first interactive frames.
+        DetectorScheduler.getInstance().schedule(detector, DetectorPriority.BACKGROUND, trackedResult,
+                scheduledResult -> warmUp(name, detector, call, scheduledResult));
+    }
+
+    private static void warmUp(String name, ImageDetector detector, MethodCall call, final MethodChannel.Result result) {
+        final long start = SystemClock.elapsedRealtime();
+        Bitmap bitmap = Bitmap.createBitmap(IMAGE_SIZE, IMAGE_SIZE, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.GRAY);
+        InputImage inputImage = InputImage.fromBitmap(bitmap, 0);
+
+        //Client creation happens on this thread, inference runs on the executor of the client.
+        detector.process(inputImage, call, new MethodChannel.Result() {
+            @Override
+            public void success(Object o) {
+                Map<String, Object> warmUp = new HashMap<>();
+                warmUp.put("detector", name);
+                warmUp.put("warmUpMillis", SystemClock.elapsedRealtime() - start);
+                ClientLifecycleManager.onWarmedUp(call.argument("id"));
+                result.success(warmUp);
+            }
+
+            @Override
+            public void error(String errorCode, String errorMessage, Object errorDetails) {
+                result.error(errorCode, errorMessage, errorDetails);
+            }
+
+            @Override
+            public void notImplemented() {
+                result.notImplemented();
+            }
+        });
+    }
+}
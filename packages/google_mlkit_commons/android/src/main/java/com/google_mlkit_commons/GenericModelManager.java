@@ -20,11 +20,30 @@ public class GenericModelManager {
     private static final String DELETE = "delete";
     private static final String CHECK = "check";
 
-    public RemoteModelManager remoteModelManager = RemoteModelManager.getInstance();
+    public RemoteModelManager remoteModelManager;
+
+    //Notified after a model has been deleted, so callers can drop state that assumes the model is available.
+    public interface OnModelDeletedListener {
+        void onModelDeleted(RemoteModel model);
+    }
+
+    private OnModelDeletedListener onModelDeletedListener;
+
+    public void setOnModelDeletedListener(OnModelDeletedListener listener) {
+        onModelDeletedListener = listener;
+    }
 
     //To avoid downloading models in the main thread as they are around 20MB and may crash the app.
     private final ExecutorService executorService = Executors.newCachedThreadPool();
 
+    public GenericModelManager() {
+        this(RemoteModelManager.getInstance());
+    }
+
+    GenericModelManager(RemoteModelManager remoteModelManager) {
+        this.remoteModelManager = remoteModelManager;
+    }
+
     public void manageModel(final RemoteModel model, final MethodCall call, final MethodChannel.Result result) {
         String task = call.argument("task");
         switch (task) {
@@ -63,7 +82,15 @@ public class GenericModelManager {
             result.success("success");
             return;
         }
-        remoteModelManager.deleteDownloadedModel(remoteModel).addOnSuccessListener(aVoid -> result.success("success")).addOnFailureListener(e -> result.error("error", e.toString(), null));
+        remoteModelManager.deleteDownloadedModel(remoteModel).addOnSuccessListener(aVoid -> {
+            onModelDeleted(remoteModel);
+            result.success("success");
+        }).addOnFailureListener(e -> result.error("error", e.toString(), null));
+    }
+
+    //The listener runs before dart is told about the deletion, so no later request sees the model as ready.
+    void onModelDeleted(RemoteModel remoteModel) {
+        if (onModelDeletedListener != null) onModelDeletedListener.onModelDeleted(remoteModel);
     }
 
     public Boolean isModelDownloaded(RemoteModel model) {
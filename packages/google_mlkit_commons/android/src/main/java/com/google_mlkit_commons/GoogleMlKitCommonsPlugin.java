@@ -1,28 +1,95 @@
 package com.google_mlkit_commons;
 
+import android.content.Context;
+
 import androidx.annotation.NonNull;
 
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitCommonsPlugin implements FlutterPlugin, MethodChannel.MethodCallHandler {
+    private static final String START_PIPELINE = "vision#startDetectionPipeline";
+    private static final String CANCEL_REQUEST = "commons#cancelRequest";
+    private static final String REQUEST_STATS = "commons#getRequestStats";
+    private static final String SET_PRIORITY = "commons#setDetectorPriority";
+    private static final String SCHEDULER_STATS = "commons#getSchedulerStats";
+    private static final String SET_MAX_IN_FLIGHT = "commons#setDetectorMaxInFlight";
+    private static final String PRELOAD_DETECTOR = "vision#preloadDetector";
+    private static final String SET_IDLE_TIMEOUT = "commons#setClientIdleTimeout";
+    private static final String CLIENT_STATS = "commons#getClientStats";
+
     private MethodChannel channel;
+    private EventChannel eventChannel;
+    private DetectionPipeline detectionPipeline;
+    private Context context;
     private static final String channelName = "google_mlkit_commons";
+    private static final String eventChannelName = "google_mlkit_commons_events";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
         channel.setMethodCallHandler(this);
+        eventChannel = new EventChannel(flutterPluginBinding.getBinaryMessenger(), eventChannelName);
+        eventChannel.setStreamHandler(new ResultStream());
+        detectionPipeline = new DetectionPipeline(flutterPluginBinding.getApplicationContext());
+        context = flutterPluginBinding.getApplicationContext();
+        context.registerComponentCallbacks(ClientLifecycleManager.componentCallbacks);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        eventChannel.setStreamHandler(null);
+        context.unregisterComponentCallbacks(ClientLifecycleManager.componentCallbacks);
     }
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
-        result.notImplemented();
+        switch (call.method) {
+            case START_PIPELINE:
+                MethodChannel.Result trackedResult = RequestTracker.track(call, result);
+                if (trackedResult != null) detectionPipeline.process(call, trackedResult);
+                break;
+            case CANCEL_REQUEST:
+                result.success(RequestTracker.cancel(call.argument("requestId")));
+                break;
+            case REQUEST_STATS:
+                result.success(RequestTracker.getStats());
+                break;
+            case SET_PRIORITY:
+                DetectorRegistry.setPriority(call.argument("detector"),
+                        DetectorPriority.fromName(call.argument("priority"), DetectorPriority.NORMAL));
+                result.success(null);
+                break;
+            case SET_MAX_IN_FLIGHT:
+                String detectorName = call.argument("detector");
+                Integer maxInFlight = call.argument("maxInFlight");
+                if (detectorName == null || maxInFlight == null) {
+                    result.error("DetectorSchedulerError", "Invalid arguments", null);
+                    break;
+                }
+                DetectorRegistry.setMaxInFlight(detectorName, maxInFlight);
+                result.success(null);
+                break;
+            case SCHEDULER_STATS:
+                result.success(DetectorScheduler.getInstance().getStats());
+                break;
+            case PRELOAD_DETECTOR:
+                DetectorWarmUp.preload(call.argument("detector"), call, result);
+                break;
+            case SET_IDLE_TIMEOUT:
+                Number millis = call.argument("millis");
+                ClientLifecycleManager.setIdleTimeout(millis != null ? millis.longValue() : 0);
+                result.success(null);
+                break;
+            case CLIENT_STATS:
+                result.success(ClientLifecycleManager.getStats());
+                break;
+            default:
+                result.notImplemented();
+                break;
+        }
     }
 }
@@ -0,0 +1,11 @@
+package com.google_mlkit_commons;
+
+import com.google.mlkit.vision.common.InputImage;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+//A detector that can run on an [InputImage] that has already been converted, so that a single frame can be shared across plugins.
+public interface ImageDetector {
+    void process(InputImage inputImage, MethodCall call, MethodChannel.Result result);
+}
@@ -0,0 +1,42 @@
+package com.google_mlkit_commons;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Fixed bucket histogram of latencies in milliseconds.
+class LatencyHistogram {
+    private static final long[] BOUNDS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private final long[] buckets = new long[BOUNDS.length + 1];
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+
+    synchronized void record(long millis) {
+        int i = 0;
+        while (i < BOUNDS.length && millis > BOUNDS[i]) i++;
+        buckets[i]++;
+        count++;
+        totalMillis += millis;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    synchronized Map<String, Object> toMap() {
+        List<Map<String, Object>> bucketList = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            Map<String, Object> bucket = new HashMap<>();
+            //-1 stands for the overflow bucket.
+            bucket.put("upperBoundMillis", i < BOUNDS.length ? BOUNDS[i] : -1);
+            bucket.put("count", buckets[i]);
+            bucketList.add(bucket);
+        }
+        Map<String, Object> histogram = new HashMap<>();
+        histogram.put("count", count);
+        histogram.put("meanMillis", count > 0 ? (double) totalMillis / count : 0.0);
+        histogram.put("maxMillis", maxMillis);
+        histogram.put("buckets", bucketList);
+        return histogram;
+    }
+}
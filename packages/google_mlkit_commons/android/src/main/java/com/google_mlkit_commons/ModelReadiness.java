@@ -0,0 +1,35 @@
+package com.google_mlkit_commons;
+
+import com.google.mlkit.common.model.RemoteModel;
+
+import java.util.HashSet;
+import java.util.Set;
+
+//Clients whose model is known to be downloaded, so requests can skip asking the model manager first.
+//Register it as the OnModelDeletedListener of the plugin's GenericModelManager: a deleted model may be used by any
+//client, so all of them have to check again. Only used on the main thread.
+public class ModelReadiness<T> implements GenericModelManager.OnModelDeletedListener {
+    private final Set<T> ready = new HashSet<>();
+
+    public boolean isReady(T client) {
+        return ready.contains(client);
+    }
+
+    public void setReady(T client) {
+        ready.add(client);
+    }
+
+    //Called when a client is closed or one of its requests failed, it checks its model again on the next request.
+    public void remove(T client) {
+        ready.remove(client);
+    }
+
+    public void clear() {
+        ready.clear();
+    }
+
+    @Override
+    public void onModelDeleted(RemoteModel model) {
+        ready.clear();
+    }
+}
@@ -0,0 +1,172 @@
+package com.google_mlkit_commons;
+
+import android.os.SystemClock;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+//Tracks detection requests that carry a "requestId" so they can be cancelled from dart.
+//A request cancelled before it starts (see [start]) is dropped, a request cancelled while running skips serializing its result.
+//In both cases the caller receives a "cancelled" error.
+public class RequestTracker {
+    public static final String CANCELLED = "cancelled";
+    private static final int MAX_PENDING_CANCELS = 128;
+    private static final int MAX_COMPLETED_IDS = 128;
+    //The request and its cancel call travel on different channels, so the request follows within a short time if it comes at all.
+    static final long PENDING_CANCEL_TIMEOUT_MILLIS = 5000;
+
+    private static final Map<String, TrackedResult> active = new HashMap<>();
+    //Cancellations received before the request itself with the time they were received, oldest first.
+    private static final Map<String, Long> pendingCancels = new LinkedHashMap<>();
+    //Ids of the last completed requests, a late cancel of one of them is not kept for a request reusing the id.
+    private static final Set<String> completedIds = new LinkedHashSet<>();
+
+    private static long started;
+    private static long completed;
+    private static long cancelledBeforeStart;
+    private static long cancelledInFlight;
+
+    //Returns the result to use for the request, or null if it was already cancelled, in which case the caller has been replied to.
+    public static MethodChannel.Result track(MethodCall call, MethodChannel.Result result) {
+        String requestId = call.argument("requestId");
+        if (requestId == null) return result;
+        return track(requestId, result, SystemClock.elapsedRealtime());
+    }
+
+    static synchronized MethodChannel.Result track(String requestId, MethodChannel.Result result, long now) {
+        expirePendingCancels(now);
+        if (pendingCancels.remove(requestId) != null) {
+            cancelledBeforeStart++;
+            replyCancelled(requestId, result);
+            return null;
+        }
+
+        TrackedResult trackedResult = new TrackedResult(requestId, result);
+        active.put(requestId, trackedResult);
+        return trackedResult;
+    }
+
+    //Marks the request as started, returns false if it was cancelled while waiting, in which case the caller has been replied to.
+    public static boolean start(MethodChannel.Result result) {
+        if (!(result instanceof TrackedResult)) return true;
+        TrackedResult trackedResult = (TrackedResult) result;
+        synchronized (RequestTracker.class) {
+            if (!trackedResult.cancelled) {
+                trackedResult.started = true;
+                started++;
+                return true;
+            }
+        }
+        trackedResult.success(null);
+        return false;
+    }
+
+    //Returns true if the request was waiting or running. The cancel of a request not received yet is kept for a short time,
+    //the cancel of a completed request is ignored.
+    public static boolean cancel(String requestId) {
+        return cancel(requestId, SystemClock.elapsedRealtime());
+    }
+
+    static synchronized boolean cancel(String requestId, long now) {
+        TrackedResult trackedResult = active.get(requestId);
+        if (trackedResult != null) {
+            trackedResult.cancelled = true;
+            return true;
+        }
+        if (completedIds.contains(requestId)) return false;
+
+        expirePendingCancels(now);
+        pendingCancels.put(requestId, now);
+        if (pendingCancels.size() > MAX_PENDING_CANCELS) removeEldest(pendingCancels.keySet());
+        return false;
+    }
+
+    private static void expirePendingCancels(long now) {
+        Iterator<Long> iterator = pendingCancels.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next() < PENDING_CANCEL_TIMEOUT_MILLIS) break;
+            iterator.remove();
+        }
+    }
+
+    private static void removeEldest(Set<String> ids) {
+        Iterator<String> iterator = ids.iterator();
+        iterator.next();
+        iterator.remove();
+    }
+
+    //Checks whether the request was cancelled while running, if so replies "cancelled" and returns true,
+    //so the detector can skip serializing its result.
+    public static boolean skipIfCancelled(MethodChannel.Result result) {
+        if (!(result instanceof Cancellable) || !((Cancellable) result).isCancelled()) return false;
+        result.success(null);
+        return true;
+    }
+
+    public static synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("started", started);
+        stats.put("completed", completed);
+        stats.put("active", active.size());
+        stats.put("cancelledBeforeStart", cancelledBeforeStart);
+        stats.put("cancelledInFlight", cancelledInFlight);
+        return stats;
+    }
+
+    private static synchronized boolean complete(TrackedResult trackedResult) {
+        if (active.remove(trackedResult.requestId) == null) return false;
+        completedIds.add(trackedResult.requestId);
+        if (completedIds.size() > MAX_COMPLETED_IDS) removeEldest(completedIds);
+        if (!trackedResult.cancelled) completed++;
+        else if (trackedResult.started) cancelledInFlight++;
+        else cancelledBeforeStart++;
+        return true;
+    }
+
+    private static void replyCancelled(String requestId, MethodChannel.Result result) {
+        result.error(CANCELLED, "Request " + requestId + " was cancelled", null);
+    }
+
+    private static class TrackedResult implements MethodChannel.Result, Cancellable {
+        final String requestId;
+        final MethodChannel.Result result;
+        volatile boolean cancelled;
+        boolean started;
+
+        TrackedResult(String requestId, MethodChannel.Result result) {
+            this.requestId = requestId;
+            this.result = result;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void success(Object o) {
+            if (!complete(this)) return;
+            if (cancelled) replyCancelled(requestId, result);
+            else result.success(o);
+        }
+
+        @Override
+        public void error(String errorCode, String errorMessage, Object errorDetails) {
+            if (!complete(this)) return;
+            if (cancelled) replyCancelled(requestId, result);
+            else result.error(errorCode, errorMessage, errorDetails);
+        }
+
+        @Override
+        public void notImplemented() {
+            if (complete(this)) result.notImplemented();
+        }
+    }
+}
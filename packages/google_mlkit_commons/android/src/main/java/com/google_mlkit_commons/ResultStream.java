@@ -0,0 +1,40 @@
+package com.google_mlkit_commons;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+
+//Pushes partial results to dart over a single event channel shared by all plugins.
+//Each event is tagged with the id of the stream it belongs to, so dart can route it to the right caller.
+public class ResultStream implements EventChannel.StreamHandler {
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static EventChannel.EventSink eventSink;
+
+    //Events emitted on the main thread are sent right away, so they reach dart before a reply sent afterwards.
+    public static void emit(final String streamId, final Object event) {
+        if (Looper.myLooper() == Looper.getMainLooper()) send(streamId, event);
+        else mainHandler.post(() -> send(streamId, event));
+    }
+
+    private static void send(String streamId, Object event) {
+        if (eventSink == null) return;
+        Map<String, Object> data = new HashMap<>();
+        data.put("streamId", streamId);
+        data.put("event", event);
+        eventSink.success(data);
+    }
+
+    @Override
+    public void onListen(Object arguments, EventChannel.EventSink events) {
+        eventSink = events;
+    }
+
+    @Override
+    public void onCancel(Object arguments) {
+        eventSink = null;
+    }
+}
@@ -0,0 +1,155 @@
+package com.google_mlkit_commons;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.ComponentCallbacks2;
+
+import org.junit.Test;
+
+import java.io.Closeable;
+
+public class ClientLifecycleManagerTest {
+    private static class Client implements Closeable {
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void closesIdleClient() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client client = new Client();
+        manager.put("idle", client);
+
+        assertSame(client, manager.get("idle"));
+        assertTrue(manager.closeIdle(0) > 0);
+        assertTrue(client.closed);
+        assertNull(manager.get("idle"));
+    }
+
+    @Test
+    public void keepsClientWithPendingTask() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client client = new Client();
+        manager.put("pending", client);
+        manager.acquire("pending", client);
+
+        manager.closeIdle(0);
+        assertFalse(client.closed);
+        assertSame(client, manager.get("pending"));
+
+        manager.release("pending", client);
+        manager.closeIdle(0);
+        assertTrue(client.closed);
+    }
+
+    @Test
+    public void keepsClientWhileAnyTaskIsPending() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client client = new Client();
+        manager.put("shared", client);
+        manager.acquire("shared", client);
+        manager.acquire("shared", client);
+
+        manager.release("shared", client);
+        manager.closeIdle(0);
+        assertFalse(client.closed);
+
+        manager.release("shared", client);
+        manager.closeIdle(0);
+        assertTrue(client.closed);
+    }
+
+    @Test
+    public void releaseOfReplacedClientDoesNotUnpinNewOne() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client first = new Client();
+        Client second = new Client();
+        manager.put("replaced", first);
+        manager.acquire("replaced", first);
+        manager.put("replaced", second);
+        manager.acquire("replaced", second);
+
+        manager.release("replaced", first);
+        manager.closeIdle(0);
+        assertFalse(second.closed);
+
+        manager.release("replaced", second);
+        manager.closeIdle(0);
+        assertTrue(second.closed);
+    }
+
+    @Test
+    public void keepsWarmedUpClientUntilFirstRequest() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client client = new Client();
+        manager.put("warm", client);
+        ClientLifecycleManager.onWarmedUp("warm");
+
+        manager.closeIdle(0);
+        assertFalse(client.closed);
+
+        assertSame(client, manager.get("warm"));
+        manager.closeIdle(0);
+        assertTrue(client.closed);
+    }
+
+    @Test
+    public void keepsWarmedUpClientForOneIdleTimeout() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client kept = new Client();
+        Client expired = new Client();
+        manager.put("kept", kept);
+        ClientLifecycleManager.onWarmedUp("kept");
+        manager.closeIdle(0);
+        assertFalse(kept.closed);
+
+        //Without an idle timeout the grace period ends right away.
+        ClientLifecycleManager.setIdleTimeout(0);
+        try {
+            manager.put("expired", expired);
+            ClientLifecycleManager.onWarmedUp("expired");
+            manager.closeIdle(0);
+            assertTrue(expired.closed);
+            assertFalse(kept.closed);
+        } finally {
+            ClientLifecycleManager.setIdleTimeout(5 * 60 * 1000);
+        }
+    }
+
+    @Test
+    public void evictsWarmedUpClientWhenMemoryRunsOut() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client trimmed = new Client();
+        Client lowMemory = new Client();
+        manager.put("trimmed", trimmed);
+        ClientLifecycleManager.onWarmedUp("trimmed");
+
+        ClientLifecycleManager.componentCallbacks.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertFalse(trimmed.closed);
+        ClientLifecycleManager.componentCallbacks.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        assertTrue(trimmed.closed);
+
+        manager.put("lowMemory", lowMemory);
+        ClientLifecycleManager.onWarmedUp("lowMemory");
+        ClientLifecycleManager.componentCallbacks.onLowMemory();
+        assertTrue(lowMemory.closed);
+    }
+
+    @Test
+    public void closeClosesPinnedClient() {
+        ClientLifecycleManager<Client> manager = new ClientLifecycleManager<>();
+        Client client = new Client();
+        manager.put("closed", client);
+        manager.acquire("closed", client);
+
+        manager.close("closed");
+        assertTrue(client.closed);
+    }
+}
@@ -0,0 +1,41 @@
+package com.google_mlkit_commons;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ModelReadinessTest {
+    @Test
+    public void remembersReadyClients() {
+        ModelReadiness<String> readiness = new ModelReadiness<>();
+        readiness.setReady("en-de");
+
+        assertTrue(readiness.isReady("en-de"));
+        assertFalse(readiness.isReady("en-fr"));
+
+        readiness.remove("en-de");
+        assertFalse(readiness.isReady("en-de"));
+    }
+
+    @Test
+    public void forgetsAllClientsWhenAModelIsDeleted() {
+        GenericModelManager modelManager = new GenericModelManager(null);
+        ModelReadiness<String> readiness = new ModelReadiness<>();
+        modelManager.setOnModelDeletedListener(readiness);
+        readiness.setReady("en-de");
+        readiness.setReady("en-fr");
+
+        modelManager.onModelDeleted(null);
+        assertFalse(readiness.isReady("en-de"));
+        assertFalse(readiness.isReady("en-fr"));
+
+        readiness.setReady("en-de");
+        assertTrue(readiness.isReady("en-de"));
+    }
+
+    @Test
+    public void ignoresDeletionWithoutListener() {
+        new GenericModelManager(null).onModelDeleted(null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.google_mlkit_commons;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.flutter.plugin.common.MethodChannel;
+
+public class RequestTrackerTest {
+    private static class Reply implements MethodChannel.Result {
+        Object value;
+        String errorCode;
+
+        @Override
+        public void success(Object o) {
+            value = o;
+        }
+
+        @Override
+        public void error(String errorCode, String errorMessage, Object errorDetails) {
+            this.errorCode = errorCode;
+        }
+
+        @Override
+        public void notImplemented() {
+        }
+    }
+
+    @Test
+    public void cancelsWaitingRequest() {
+        Reply reply = new Reply();
+        MethodChannel.Result result = RequestTracker.track("waiting", reply, 0);
+
+        assertTrue(RequestTracker.cancel("waiting", 0));
+        assertFalse(RequestTracker.start(result));
+        assertEquals(RequestTracker.CANCELLED, reply.errorCode);
+    }
+
+    @Test
+    public void dropsRequestCancelledBeforeItArrives() {
+        Reply reply = new Reply();
+        assertFalse(RequestTracker.cancel("early", 0));
+
+        assertNull(RequestTracker.track("early", reply, RequestTracker.PENDING_CANCEL_TIMEOUT_MILLIS - 1));
+        assertEquals(RequestTracker.CANCELLED, reply.errorCode);
+    }
+
+    @Test
+    public void forgetsCancelOfRequestThatNeverArrives() {
+        Reply reply = new Reply();
+        assertFalse(RequestTracker.cancel("late", 0));
+
+        MethodChannel.Result result = RequestTracker.track("late", reply, RequestTracker.PENDING_CANCEL_TIMEOUT_MILLIS);
+        assertNotNull(result);
+        assertTrue(RequestTracker.start(result));
+        result.success("done");
+        assertEquals("done", reply.value);
+    }
+
+    @Test
+    public void ignoresCancelOfCompletedRequest() {
+        Reply first = new Reply();
+        MethodChannel.Result result = RequestTracker.track("reused", first, 0);
+        result.success("first");
+        assertFalse(RequestTracker.cancel("reused", 0));
+
+        Reply second = new Reply();
+        result = RequestTracker.track("reused", second, 0);
+        assertNotNull(result);
+        assertTrue(RequestTracker.start(result));
+        result.success("second");
+        assertEquals("second", second.value);
+        assertNull(second.errorCode);
+    }
+}
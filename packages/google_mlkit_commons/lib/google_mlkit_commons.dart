@@ -1,3 +1,10 @@
+export 'src/batch_processing.dart';
+export 'src/client_lifecycle.dart';
+export 'src/detection_pipeline.dart';
+export 'src/detection_requests.dart';
+export 'src/detector_scheduling.dart';
+export 'src/detector_warm_up.dart';
 export 'src/input_image.dart';
 export 'src/model_manager.dart';
 export 'src/rect.dart';
+export 'src/result_stream.dart';
@@ -0,0 +1,107 @@
+import 'dart:async';
+
+import 'package:flutter/services.dart';
+
+import 'detector_scheduling.dart';
+import 'input_image.dart';
+import 'result_stream.dart';
+
+/// The result of processing a single image of a batch.
+class BatchItemResult<T> {
+  /// The position of the image in the batch.
+  final int index;
+
+  /// The result of the detector, null if it failed.
+  final T? result;
+
+  /// The error code if the image could not be processed.
+  final String? errorCode;
+
+  /// The error message if the image could not be processed.
+  final String? errorMessage;
+
+  /// Time spent decoding the image.
+  final Duration decodeTime;
+
+  /// Time spent by the detector processing the image.
+  final Duration processTime;
+
+  /// Constructor to create an instance of [BatchItemResult].
+  BatchItemResult(
+      {required this.index,
+      this.result,
+      this.errorCode,
+      this.errorMessage,
+      required this.decodeTime,
+      required this.processTime});
+
+  /// Whether the image was processed successfully.
+  bool get isSuccess => errorCode == null;
+}
+
+/// Runs a batch of images through a detector.
+///
+/// Results are streamed back as soon as each image is processed, so the order of the items is not guaranteed.
+/// Only available on Android.
+class BatchImageProcessing {
+  /// Processes [images] by invoking [method] on [channel] with the given [arguments].
+  /// At most [parallelism] images are decoded at the same time, and at most twice as many are decoded
+  /// or decoding before the detector is done with them. The decoding threads are shared by all plugins.
+  /// A [priority] overrides the priority the detector is registered with, e.g. to run a large batch in the background.
+  static Stream<BatchItemResult<T>> process<T>({
+    required MethodChannel channel,
+    required String method,
+    required Map<String, dynamic> arguments,
+    required List<InputImage> images,
+    required T Function(dynamic json) parse,
+    int parallelism = 2,
+    DetectorPriority? priority,
+  }) {
+    final batchId = ResultStream.newStreamId();
+    final controller = StreamController<BatchItemResult<T>>();
+    int received = 0;
+    int? expected;
+
+    void closeIfDone() {
+      if (expected != null && received >= expected!) controller.close();
+    }
+
+    final subscription = ResultStream.events(batchId).listen((json) {
+      received++;
+      final decodeTime = Duration(milliseconds: json['decodeMillis']);
+      final processTime = Duration(milliseconds: json['processMillis']);
+      if (json['status'] == 'success') {
+        controller.add(BatchItemResult(
+            index: json['index'],
+            result: parse(json['result']),
+            decodeTime: decodeTime,
+            processTime: processTime));
+      } else {
+        controller.add(BatchItemResult(
+            index: json['index'],
+            errorCode: json['code'],
+            errorMessage: json['message'],
+            decodeTime: decodeTime,
+            processTime: processTime));
+      }
+      closeIfDone();
+    });
+    controller.onCancel = subscription.cancel;
+
+    channel.invokeMapMethod<String, dynamic>(method, {
+      ...arguments,
+      'batchId': batchId,
+      'parallelism': parallelism,
+      if (priority != null) 'priority': priority.name,
+      'images': images.map((image) => image.toJson()).toList(),
+    }).then((summary) {
+      expected = summary!['count'];
+      closeIfDone();
+    }, onError: (Object error, StackTrace stackTrace) {
+      controller.addError(error, stackTrace);
+      controller.close();
+    });
+
+    return controller.stream;
+  }
+}
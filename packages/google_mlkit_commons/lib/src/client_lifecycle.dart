@@ -0,0 +1,57 @@
+import 'package:flutter/services.dart';
+
+import 'detector_warm_up.dart';
+
+/// Controls how long the native clients of the detectors are kept.
+///
+/// A client not used for the idle timeout is closed, and clients are released when the system runs low on memory.
+/// A released client is created again on its next use, at the cost of initializing its model again.
+/// Clients busy with a request are never released, a client preloaded with [DetectorWarmUp] is kept until its first request.
+/// Only available on Android.
+class ClientLifecycle {
+  static const MethodChannel _channel = MethodChannel('google_mlkit_commons');
+
+  /// Sets the idle timeout of all clients, null disables idle eviction. The default is 5 minutes.
+  static Future<void> setIdleTimeout(Duration? timeout) =>
+      _channel.invokeMethod('commons#setClientIdleTimeout',
+          {'millis': timeout?.inMilliseconds ?? 0});
+
+  /// Returns the number of live clients and how many have been released.
+  static Future<ClientLifecycleStats> getStats() async {
+    final result =
+        await _channel.invokeMapMethod<String, dynamic>('commons#getClientStats');
+    return ClientLifecycleStats.fromJson(result!);
+  }
+}
+
+/// Statistics of the native clients managed by [ClientLifecycle].
+class ClientLifecycleStats {
+  /// Number of live clients across all plugins.
+  final int clients;
+
+  /// The idle timeout, null if idle eviction is disabled.
+  final Duration? idleTimeout;
+
+  /// Number of clients closed because they were idle.
+  final int idleEvictions;
+
+  /// Number of clients released because the system was low on memory.
+  final int trimEvictions;
+
+  /// Constructor to create an instance of [ClientLifecycleStats].
+  ClientLifecycleStats(
+      {required this.clients,
+      required this.idleTimeout,
+      required this.idleEvictions,
+      required this.trimEvictions});
+
+  /// Returns an instance of [ClientLifecycleStats] from a given [json].
+  factory ClientLifecycleStats.fromJson(Map<String, dynamic> json) =>
+      ClientLifecycleStats(
+          clients: json['clients'],
+          idleTimeout: json['idleTimeoutMillis'] > 0
+              ? Duration(milliseconds: json['idleTimeoutMillis'])
+              : null,
+          idleEvictions: json['idleEvictions'],
+          trimEvictions: json['trimEvictions']);
+}
@@ -0,0 +1,89 @@
+import 'package:flutter/services.dart';
+
+import 'input_image.dart';
+
+/// A detector to be run as part of a [DetectionPipeline].
+class PipelineStage<T> {
+  /// The name the detector is registered with on the native side, e.g. `face`.
+  final String detector;
+
+  /// The arguments passed to the detector, including its instance id.
+  final Map<String, dynamic> arguments;
+
+  /// Converts the raw result of the detector into its typed representation.
+  final T Function(dynamic json) parse;
+
+  /// Constructor to create an instance of [PipelineStage].
+  PipelineStage(
+      {required this.detector, required this.arguments, required this.parse});
+}
+
+/// The result of a single [PipelineStage].
+class PipelineStageResult<T> {
+  /// The name of the detector that produced this result.
+  final String detector;
+
+  /// The result of the detector, null if it failed.
+  final T? result;
+
+  /// The error code if the detector failed.
+  final String? errorCode;
+
+  /// The error message if the detector failed.
+  final String? errorMessage;
+
+  /// Constructor to create an instance of [PipelineStageResult].
+  PipelineStageResult(
+      {required this.detector,
+      this.result,
+      this.errorCode,
+      this.errorMessage});
+
+  /// Whether the detector completed successfully.
+  bool get isSuccess => errorCode == null;
+}
+
+/// Runs several detectors on a single [InputImage].
+///
+/// The image is sent over the channel and converted only once, then dispatched to all detectors concurrently.
+/// Only available on Android.
+class DetectionPipeline {
+  static const MethodChannel _channel = MethodChannel('google_mlkit_commons');
+
+  /// The detectors to run on each image.
+  final List<PipelineStage> stages;
+
+  /// Constructor to create an instance of [DetectionPipeline].
+  DetectionPipeline({required this.stages});
+
+  /// Processes the given [inputImage] with all [stages].
+  /// Returns one [PipelineStageResult] per stage, in the same order as [stages].
+  /// Pass a [requestId] to be able to cancel the request with [DetectionRequests.cancel].
+  Future<List<PipelineStageResult>> processImage(InputImage inputImage,
+      {String? requestId}) async {
+    final result = await _channel
+        .invokeListMethod<dynamic>('vision#startDetectionPipeline', {
+      'imageData': inputImage.toJson(),
+      if (requestId != null) 'requestId': requestId,
+      'detectors': stages
+          .map((stage) => {...stage.arguments, 'detector': stage.detector})
+          .toList(),
+    });
+
+    final results = <PipelineStageResult>[];
+    for (var i = 0; i < stages.length; i++) {
+      final json = result![i];
+      if (json['status'] == 'success') {
+        results.add(PipelineStageResult(
+            detector: json['detector'],
+            result: stages[i].parse(json['result'])));
+      } else {
+        results.add(PipelineStageResult(
+            detector: json['detector'],
+            errorCode: json['code'],
+            errorMessage: json['message']));
+      }
+    }
+    return results;
+  }
+}
@@ -0,0 +1,70 @@
+import 'package:flutter/services.dart';
+
+/// Cancels detection requests that were started with a request id.
+///
+/// A cancelled request completes with a [PlatformException] whose code is [DetectionRequests.cancelledCode].
+/// Only available on Android.
+class DetectionRequests {
+  static const MethodChannel _channel = MethodChannel('google_mlkit_commons');
+
+  /// The error code of a cancelled request.
+  static const String cancelledCode = 'cancelled';
+
+  static int _counter = 0;
+
+  /// Returns a new unique request id.
+  static String newRequestId() =>
+      '${DateTime.now().microsecondsSinceEpoch}-${_counter++}';
+
+  /// Cancels the request with the given [requestId].
+  /// If the request has not started yet it is dropped, otherwise its result is discarded.
+  /// Returns true if the request was waiting or running, false if it has completed or has not been received yet.
+  /// The cancel of a request not received yet is kept for a few seconds, in case the request arrives after it.
+  static Future<bool> cancel(String requestId) async {
+    final result = await _channel.invokeMethod<bool>(
+        'commons#cancelRequest', {'requestId': requestId});
+    return result ?? false;
+  }
+
+  /// Returns statistics about the tracked requests.
+  static Future<DetectionRequestStats> getStats() async {
+    final result = await _channel.invokeMapMethod<String, dynamic>(
+        'commons#getRequestStats');
+    return DetectionRequestStats.fromJson(result!);
+  }
+}
+
+/// Statistics about the requests tracked by [DetectionRequests].
+class DetectionRequestStats {
+  /// Number of requests started.
+  final int started;
+
+  /// Number of requests completed without being cancelled.
+  final int completed;
+
+  /// Number of requests currently running.
+  final int active;
+
+  /// Number of requests dropped because they were cancelled before starting.
+  final int cancelledBeforeStart;
+
+  /// Number of requests cancelled while running.
+  final int cancelledInFlight;
+
+  /// Constructor to create an instance of [DetectionRequestStats].
+  DetectionRequestStats(
+      {required this.started,
+      required this.completed,
+      required this.active,
+      required this.cancelledBeforeStart,
+      required this.cancelledInFlight});
+
+  /// Returns an instance of [DetectionRequestStats] from a given [json].
+  factory DetectionRequestStats.fromJson(Map<String, dynamic> json) =>
+      DetectionRequestStats(
+          started: json['started'],
+          completed: json['completed'],
+          active: json['active'],
+          cancelledBeforeStart: json['cancelledBeforeStart'],
+          cancelledInFlight: json['cancelledInFlight']);
+}
@@ -0,0 +1,98 @@
+import 'package:flutter/services.dart';
+
+/// Scheduling class of a detector.
+enum DetectorPriority {
+  /// Latency sensitive work, e.g. live camera frames. Always runs first.
+  interactive,
+
+  /// Default priority.
+  normal,
+
+  /// Work that can wait, e.g. labeling a photo library.
+  /// Throttled while interactive requests are active.
+  background,
+}
+
+/// Controls how requests of the vision detectors are scheduled on the native side.
+/// Only available on Android.
+class DetectorScheduling {
+  static const MethodChannel _channel = MethodChannel('google_mlkit_commons');
+
+  /// Sets the [priority] of the detector registered as [detector], e.g. `barcode` or `label`.
+  static Future<void> setPriority(String detector, DetectorPriority priority) =>
+      _channel.invokeMethod('commons#setDetectorPriority',
+          {'detector': detector, 'priority': priority.name});
+
+  /// Sets how many requests of the detector registered as [detector] may run at the same time, 3 by default.
+  /// Each detector has its own limit, so a busy stream of one detector does not hold back the others.
+  static Future<void> setMaxInFlight(String detector, int maxInFlight) =>
+      _channel.invokeMethod('commons#setDetectorMaxInFlight',
+          {'detector': detector, 'maxInFlight': maxInFlight});
+
+  /// Returns the scheduling statistics of each priority class.
+  static Future<Map<DetectorPriority, SchedulerClassStats>> getStats() async {
+    final result = await _channel.invokeMapMethod<String, dynamic>(
+        'commons#getSchedulerStats');
+    return {
+      for (final priority in DetectorPriority.values)
+        priority: SchedulerClassStats.fromJson(result![priority.name])
+    };
+  }
+}
+
+/// Scheduling statistics of a priority class.
+class SchedulerClassStats {
+  /// Number of requests waiting to run.
+  final int queued;
+
+  /// Time from queuing a request to its completion.
+  final LatencyHistogram latency;
+
+  /// Time a request waited in the queue before running.
+  final LatencyHistogram wait;
+
+  /// Constructor to create an instance of [SchedulerClassStats].
+  SchedulerClassStats(
+      {required this.queued, required this.latency, required this.wait});
+
+  /// Returns an instance of [SchedulerClassStats] from a given [json].
+  factory SchedulerClassStats.fromJson(Map<dynamic, dynamic> json) =>
+      SchedulerClassStats(
+          queued: json['queued'],
+          latency: LatencyHistogram.fromJson(json['latency']),
+          wait: LatencyHistogram.fromJson(json['wait']));
+}
+
+/// A histogram of latencies in milliseconds.
+class LatencyHistogram {
+  /// Number of recorded values.
+  final int count;
+
+  /// Mean of the recorded values.
+  final double meanMillis;
+
+  /// Maximum of the recorded values.
+  final int maxMillis;
+
+  /// Number of values per bucket, keyed by the inclusive upper bound of the bucket in milliseconds.
+  /// The overflow bucket has the key -1.
+  final Map<int, int> buckets;
+
+  /// Constructor to create an instance of [LatencyHistogram].
+  LatencyHistogram(
+      {required this.count,
+      required this.meanMillis,
+      required this.maxMillis,
+      required this.buckets});
+
+  /// Returns an instance of [LatencyHistogram] from a given [json].
+  factory LatencyHistogram.fromJson(Map<dynamic, dynamic> json) =>
+      LatencyHistogram(
+          count: json['count'],
+          meanMillis: json['meanMillis'],
+          maxMillis: json['maxMillis'],
+          buckets: {
+            for (final bucket in json['buckets'])
+              bucket['upperBoundMillis'] as int: bucket['count'] as int
+          });
+}
@@ -0,0 +1,26 @@
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+
+import 'detection_pipeline.dart';
+
+/// Initializes detectors ahead of their first use.
+/// Only available on Android, on other platforms [preload] does nothing.
+class DetectorWarmUp {
+  static const MethodChannel _channel = MethodChannel('google_mlkit_commons');
+
+  /// Creates the client of the detector of [stage] and runs it once on a small blank image.
+  ///
+  /// The model is initialized off the main thread and the client is kept for the instance id of [stage],
+  /// so the first real image processed by that detector does not pay for the initialization.
+  /// Until its first request, the preloaded client is kept for one idle timeout even when memory is trimmed,
+  /// it is only released earlier when the system is about to kill the app.
+  /// The warm-up runs with background priority, after any interactive requests.
+  /// Returns the time the warm-up took, [Duration.zero] on platforms other than Android.
+  static Future<Duration> preload(PipelineStage stage) async {
+    if (defaultTargetPlatform != TargetPlatform.android) return Duration.zero;
+    final result = await _channel.invokeMapMethod<String, dynamic>(
+        'vision#preloadDetector',
+        {...stage.arguments, 'detector': stage.detector});
+    return Duration(milliseconds: result!['warmUpMillis']);
+  }
+}
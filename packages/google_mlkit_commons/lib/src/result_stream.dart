@@ -0,0 +1,22 @@
+import 'package:flutter/services.dart';
+
+/// Receives partial results pushed by the native side while a long running operation is in progress.
+///
+/// All plugins share a single event channel, each event is tagged with the id of the stream it belongs to.
+class ResultStream {
+  static const EventChannel _channel =
+      EventChannel('google_mlkit_commons_events');
+
+  static final Stream<dynamic> _events = _channel.receiveBroadcastStream();
+
+  /// Returns the events pushed for the given [streamId].
+  static Stream<Map<dynamic, dynamic>> events(String streamId) => _events
+      .where((event) => event['streamId'] == streamId)
+      .map((event) => event['event'] as Map<dynamic, dynamic>);
+
+  /// Returns a new unique stream id.
+  static String newStreamId() =>
+      '${DateTime.now().microsecondsSinceEpoch}-${_counter++}';
+
+  static int _counter = 0;
+}
@@ -2,11 +2,11 @@ package com.google_mlkit_digital_ink_recognition;
 
 import androidx.annotation.NonNull;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.mlkit.common.MlKitException;
-import com.google.mlkit.vision.digitalink.DigitalInkRecognition;
 import com.google.mlkit.vision.digitalink.DigitalInkRecognitionModel;
 import com.google.mlkit.vision.digitalink.DigitalInkRecognitionModelIdentifier;
-import com.google.mlkit.vision.digitalink.DigitalInkRecognizerOptions;
 import com.google.mlkit.vision.digitalink.Ink;
 import com.google.mlkit.vision.digitalink.RecognitionCandidate;
 import com.google.mlkit.vision.digitalink.RecognitionContext;
@@ -15,9 +15,13 @@ import com.google.mlkit.vision.digitalink.WritingArea;
 import com.google_mlkit_commons.GenericModelManager;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -30,13 +34,28 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
     private static final String START = "vision#startDigitalInkRecognizer";
     private static final String CLOSE = "vision#closeDigitalInkRecognizer";
     private static final String MANAGE = "vision#manageInkModels";
-
-    private final Map<String, com.google.mlkit.vision.digitalink.DigitalInkRecognizer> instances = new HashMap<>();
+    private static final String APPEND_SESSION = "vision#appendDigitalInkSession";
+    private static final String START_SESSION = "vision#startDigitalInkRecognizerSession";
+    private static final String CLEAR_SESSION = "vision#clearDigitalInkSession";
+    private static final String CLOSE_SESSION = "vision#closeDigitalInkSession";
+    private static final String SCHEDULER_STATS = "vision#getDigitalInkSchedulerStats";
+    private static final String START_MULTI_LANGUAGE = "vision#startDigitalInkRecognizerMultiLanguage";
+
+    private final RecognizerPool recognizerPool = new RecognizerPool();
+    //Language tags of the models known to be downloaded, recognitions skip the blocking status check for them.
+    private final Set<String> downloadedModels = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final ConcurrentMap<String, InkSession> sessions = new ConcurrentHashMap<>();
     private final GenericModelManager genericModelManager = new GenericModelManager();
 
     // Use a single background executor for all operations
     private final ExecutorService backgroundExecutor = Executors.newFixedThreadPool(4);
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final InkRecognitionScheduler scheduler = new InkRecognitionScheduler(mainHandler);
+
+    public DigitalInkRecognizer() {
+        //A deleted model has to be checked again before it is used.
+        genericModelManager.setOnModelDeletedListener(model -> downloadedModels.clear());
+    }
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
@@ -46,12 +65,37 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
                 // Offload recognition to background immediately
                 backgroundExecutor.execute(() -> handleDetection(call, result));
                 break;
+            case START_MULTI_LANGUAGE:
+                backgroundExecutor.execute(() -> handleMultiLanguageDetection(call, result));
+                break;
             case CLOSE:
                 backgroundExecutor.execute(() -> {
                     closeDetector(call);
                     mainHandler.post(() -> result.success(null));
                 });
                 break;
+            case APPEND_SESSION:
+                // Only the new strokes are sent, appending on the main thread keeps them in order with later calls
+                appendToSession(call, result);
+                break;
+            case START_SESSION:
+                Number debounceMillis = call.argument("debounceMillis");
+                scheduler.schedule(call.argument("sessionId"), debounceMillis != null ? debounceMillis.longValue() : 0, result,
+                        scheduledResult -> backgroundExecutor.execute(() -> handleDetection(call, scheduledResult)));
+                break;
+            case CLEAR_SESSION:
+                clearSession(call);
+                result.success(null);
+                break;
+            case CLOSE_SESSION:
+                String sessionId = call.argument("sessionId");
+                scheduler.remove(sessionId);
+                sessions.remove(sessionId);
+                result.success(null);
+                break;
+            case SCHEDULER_STATS:
+                result.success(scheduler.getStats());
+                break;
             case MANAGE:
                 // Offload model management to background
                 backgroundExecutor.execute(() -> manageModel(call, result));
@@ -67,8 +111,7 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
         DigitalInkRecognitionModel model = getModel(tag, result);
         if (model == null) return;
 
-        // Check model status in background
-        if (!genericModelManager.isModelDownloaded(model)) {
+        if (!isModelDownloaded(tag, model)) {
             mainHandler.post(() ->
                     result.error("Model Error", "Model has not been downloaded yet", null)
             );
@@ -76,19 +119,9 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
         }
 
         String id = call.argument("id");
-        com.google.mlkit.vision.digitalink.DigitalInkRecognizer recognizer;
-
-        synchronized (instances) {
-            recognizer = instances.get(id);
-            if (recognizer == null) {
-                recognizer = DigitalInkRecognition.getClient(
-                        DigitalInkRecognizerOptions.builder(model).build()
-                );
-                instances.put(id, recognizer);
-            }
-        }
+        com.google.mlkit.vision.digitalink.DigitalInkRecognizer recognizer = recognizerPool.getForInstance(id, tag, model);
 
-        Ink ink = buildInkFromMethodCall(call);
+        Ink ink = buildInk(call);
         if (ink == null) {
             mainHandler.post(() ->
                     result.error("Ink Error", "Failed to build ink object", null)
@@ -99,57 +132,216 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
         RecognitionContext context = buildRecognitionContext(call);
 
         // Execute recognition in background
-        if (context != null) {
-            recognizer.recognize(ink, context)
-                    .addOnSuccessListener(backgroundExecutor, recognitionResult -> {
-                        List<Map<String, Object>> processedResults = processRecognitionResult(recognitionResult);
-                        mainHandler.post(() -> result.success(processedResults));
-                    })
-                    .addOnFailureListener(backgroundExecutor, e -> {
-                        mainHandler.post(() ->
-                                result.error("Recognition Error", e.toString(), null)
-                        );
-                    });
-        } else {
-            recognizer.recognize(ink)
-                    .addOnSuccessListener(backgroundExecutor, recognitionResult -> {
-                        List<Map<String, Object>> processedResults = processRecognitionResult(recognitionResult);
-                        mainHandler.post(() -> result.success(processedResults));
-                    })
-                    .addOnFailureListener(backgroundExecutor, e -> {
-                        mainHandler.post(() ->
-                                result.error("Recognition Error", e.toString(), null)
-                        );
-                    });
+        recognize(recognizer, ink, context)
+                .addOnSuccessListener(backgroundExecutor, recognitionResult -> {
+                    List<Map<String, Object>> processedResults = processRecognitionResult(recognitionResult);
+                    mainHandler.post(() -> result.success(processedResults));
+                })
+                .addOnFailureListener(backgroundExecutor, e -> {
+                    mainHandler.post(() ->
+                            result.error("Recognition Error", e.toString(), null)
+                    );
+                });
+    }
+
+    //Recognizes one ink with the models of several languages at the same time.
+    //The candidates of all languages are merged and ranked by score, each one tagged with its language.
+    //Languages that fail are reported in errors, the others are still returned.
+    private void handleMultiLanguageDetection(MethodCall call, MethodChannel.Result result) {
+        List<String> tags = call.argument("models");
+        if (tags == null || tags.isEmpty()) {
+            mainHandler.post(() ->
+                    result.error("Model Error", "No model identifiers", null)
+            );
+            return;
+        }
+        Ink ink = buildInk(call);
+        if (ink == null) {
+            mainHandler.post(() ->
+                    result.error("Ink Error", "Failed to build ink object", null)
+            );
+            return;
+        }
+        RecognitionContext context = buildRecognitionContext(call);
+
+        final Map<String, Object> errors = new HashMap<>();
+        final List<String> recognizedTags = new ArrayList<>();
+        final List<Task<RecognitionResult>> recognitions = new ArrayList<>();
+        for (String tag : tags) {
+            DigitalInkRecognitionModel model;
+            try {
+                model = createModel(tag);
+            } catch (MlKitException e) {
+                errors.put(tag, "Failed to create model: " + e.getMessage());
+                continue;
+            }
+            if (model == null) {
+                errors.put(tag, "Invalid model identifier: " + tag);
+                continue;
+            }
+            if (!isModelDownloaded(tag, model)) {
+                errors.put(tag, "Model has not been downloaded yet");
+                continue;
+            }
+            recognizedTags.add(tag);
+            recognitions.add(recognize(recognizerPool.acquire(tag, model), ink, context));
+        }
+
+        Tasks.whenAllComplete(recognitions).addOnCompleteListener(backgroundExecutor, task -> {
+            List<RankedCandidate> rankedCandidates = new ArrayList<>();
+            for (int i = 0; i < recognitions.size(); i++) {
+                String tag = recognizedTags.get(i);
+                recognizerPool.release(tag);
+                Task<RecognitionResult> recognition = recognitions.get(i);
+                if (!recognition.isSuccessful()) {
+                    errors.put(tag, String.valueOf(recognition.getException()));
+                    continue;
+                }
+                List<RecognitionCandidate> candidates = recognition.getResult().getCandidates();
+                for (int rank = 0; rank < candidates.size(); rank++) {
+                    rankedCandidates.add(new RankedCandidate(candidates.get(rank), tag, rank, i));
+                }
+            }
+            Collections.sort(rankedCandidates);
+
+            List<Map<String, Object>> candidatesList = new ArrayList<>(rankedCandidates.size());
+            for (RankedCandidate rankedCandidate : rankedCandidates) {
+                Map<String, Object> candidateData = new HashMap<>();
+                candidateData.put("text", rankedCandidate.candidate.getText());
+                //Sent as null rather than 0, which would be the best possible score.
+                Float score = rankedCandidate.candidate.getScore();
+                candidateData.put("score", score != null ? score.doubleValue() : null);
+                candidateData.put("language", rankedCandidate.tag);
+                candidatesList.add(candidateData);
+            }
+            Map<String, Object> multiLanguageResult = new HashMap<>();
+            multiLanguageResult.put("candidates", candidatesList);
+            multiLanguageResult.put("errors", errors);
+            mainHandler.post(() -> result.success(multiLanguageResult));
+        });
+    }
+
+    //Lower scores are more likely. Candidates without a score come after the scored ones, ordered by their rank
+    //within their language and then by the order of the languages in the request.
+    private static class RankedCandidate implements Comparable<RankedCandidate> {
+        final RecognitionCandidate candidate;
+        final String tag;
+        final int rank;
+        final int languageIndex;
+
+        RankedCandidate(RecognitionCandidate candidate, String tag, int rank, int languageIndex) {
+            this.candidate = candidate;
+            this.tag = tag;
+            this.rank = rank;
+            this.languageIndex = languageIndex;
+        }
+
+        @Override
+        public int compareTo(RankedCandidate other) {
+            Float score = candidate.getScore();
+            Float otherScore = other.candidate.getScore();
+            if (score != null && otherScore != null && !score.equals(otherScore)) return Float.compare(score, otherScore);
+            if (score != null && otherScore == null) return -1;
+            if (score == null && otherScore != null) return 1;
+            if (rank != other.rank) return Integer.compare(rank, other.rank);
+            return Integer.compare(languageIndex, other.languageIndex);
+        }
+    }
+
+    private Task<RecognitionResult> recognize(com.google.mlkit.vision.digitalink.DigitalInkRecognizer recognizer,
+                                              Ink ink,
+                                              RecognitionContext context) {
+        return context != null ? recognizer.recognize(ink, context) : recognizer.recognize(ink);
+    }
+
+    private Ink buildInk(MethodCall call) {
+        String sessionId = call.argument("sessionId");
+        if (sessionId == null) return buildInkFromMethodCall(call);
+        InkSession session = sessions.get(sessionId);
+        return session != null ? session.build() : Ink.builder().build();
+    }
+
+    //Adds the strokes drawn since the last call to the session, replies with the number of strokes in the session.
+    private void appendToSession(MethodCall call, MethodChannel.Result result) {
+        String sessionId = call.argument("sessionId");
+        List<Ink.Stroke> strokes = buildStrokes(call.argument("strokes"), StrokeSimplifier.fromArguments(call.argument("simplification")));
+        if (strokes == null) {
+            result.error("Ink Error", "Failed to build strokes", null);
+            return;
+        }
+        InkSession session = sessions.get(sessionId);
+        if (session == null) {
+            sessions.putIfAbsent(sessionId, new InkSession());
+            session = sessions.get(sessionId);
         }
+        result.success(session.addStrokes(strokes));
+    }
+
+    private void clearSession(MethodCall call) {
+        String sessionId = call.argument("sessionId");
+        InkSession session = sessions.get(sessionId);
+        if (session == null) return;
+        session.clear();
+    }
+
+    //Only the first positive check pays for the blocking status lookup, models are not removed behind the plugin's back
+    //except through the model manager, which clears the cached state.
+    private boolean isModelDownloaded(String tag, DigitalInkRecognitionModel model) {
+        if (downloadedModels.contains(tag)) return true;
+        // Check model status in background
+        if (!Boolean.TRUE.equals(genericModelManager.isModelDownloaded(model))) return false;
+        downloadedModels.add(tag);
+        return true;
     }
 
     private Ink buildInkFromMethodCall(MethodCall call) {
-        try {
-            Map<String, Object> inkMap = call.argument("ink");
-            List<Map<String, Object>> strokeList = (List<Map<String, Object>>) inkMap.get("strokes");
-            Ink.Builder inkBuilder = Ink.builder();
+        Map<String, Object> inkMap = call.argument("ink");
+        List<Ink.Stroke> strokes = buildStrokes((List<Map<String, Object>>) inkMap.get("strokes"),
+                StrokeSimplifier.fromArguments(call.argument("simplification")));
+        if (strokes == null) return null;
+        Ink.Builder inkBuilder = Ink.builder();
+        for (Ink.Stroke stroke : strokes) {
+            inkBuilder.addStroke(stroke);
+        }
+        return inkBuilder.build();
+    }
 
+    //Builds the strokes from packed or per point data, simplifying them if the call asks for it.
+    //Strokes without points are skipped, returns null if the data is malformed.
+    static List<Ink.Stroke> buildStrokes(List<Map<String, Object>> strokeList, StrokeSimplifier simplifier) {
+        try {
+            List<Ink.Stroke> strokes = new ArrayList<>(strokeList.size());
             for (final Map<String, Object> strokeMap : strokeList) {
-                Ink.Stroke.Builder strokeBuilder = Ink.Stroke.builder();
-                List<Map<String, Object>> pointsList = (List<Map<String, Object>>) strokeMap.get("points");
-
-                for (final Map<String, Object> point : pointsList) {
-                    float x = (float) (double) point.get("x");
-                    float y = (float) (double) point.get("y");
-                    Object t0 = point.get("t");
-                    long t;
-                    if (t0 instanceof Integer) {
-                        t = (int) t0;
-                    } else {
-                        t = (long) t0;
+                float[] coordinates;
+                long[] times;
+                Object packedCoordinates = strokeMap.get("xy");
+                if (packedCoordinates instanceof float[]) {
+                    // Packed stroke: interleaved x, y as float[] and timestamps as long[], no per point boxing
+                    coordinates = (float[]) packedCoordinates;
+                    times = (long[]) strokeMap.get("t");
+                    if (coordinates.length != 2 * times.length) return null;
+                } else {
+                    List<Map<String, Object>> pointsList = (List<Map<String, Object>>) strokeMap.get("points");
+                    coordinates = new float[pointsList.size() * 2];
+                    times = new long[pointsList.size()];
+                    for (int i = 0; i < pointsList.size(); i++) {
+                        Map<String, Object> point = pointsList.get(i);
+                        coordinates[2 * i] = (float) (double) point.get("x");
+                        coordinates[2 * i + 1] = (float) (double) point.get("y");
+                        Object t0 = point.get("t");
+                        if (t0 instanceof Integer) {
+                            times[i] = (int) t0;
+                        } else {
+                            times[i] = (long) t0;
+                        }
                     }
-                    Ink.Point strokePoint = Ink.Point.create(x, y, t);
-                    strokeBuilder.addPoint(strokePoint);
                 }
-                inkBuilder.addStroke(strokeBuilder.build());
+                if (times.length == 0) continue;
+                strokes.add(simplifier != null
+                        ? simplifier.simplify(coordinates, times)
+                        : StrokeSimplifier.build(coordinates, times, null, times.length));
             }
-            return inkBuilder.build();
+            return strokes;
         } catch (Exception e) {
             return null;
         }
@@ -200,15 +392,7 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.digitalink.DigitalInkRecognizer recognizer;
-
-        synchronized (instances) {
-            recognizer = instances.get(id);
-            if (recognizer == null) return;
-            instances.remove(id);
-        }
-
-        recognizer.close();
+        recognizerPool.releaseInstance(id);
     }
 
     private void manageModel(MethodCall call, MethodChannel.Result result) {
@@ -237,16 +421,14 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
 
     private DigitalInkRecognitionModel getModel(String tag, MethodChannel.Result result) {
         try {
-            DigitalInkRecognitionModelIdentifier modelIdentifier =
-                    DigitalInkRecognitionModelIdentifier.fromLanguageTag(tag);
-
-            if (modelIdentifier == null) {
+            DigitalInkRecognitionModel model = createModel(tag);
+            if (model == null) {
                 mainHandler.post(() ->
                         result.error("Model Error", "Invalid model identifier: " + tag, null)
                 );
                 return null;
             }
-            return DigitalInkRecognitionModel.builder(modelIdentifier).build();
+            return model;
         } catch (MlKitException e) {
             mainHandler.post(() ->
                     result.error("Model Error", "Failed to create model: " + e.getMessage(), null)
@@ -255,13 +437,22 @@ public class DigitalInkRecognizer implements MethodChannel.MethodCallHandler {
         }
     }
 
+    //Returns null if the tag does not identify a model.
+    private static DigitalInkRecognitionModel createModel(String tag) throws MlKitException {
+        DigitalInkRecognitionModelIdentifier modelIdentifier =
+                DigitalInkRecognitionModelIdentifier.fromLanguageTag(tag);
+        if (modelIdentifier == null) return null;
+        return DigitalInkRecognitionModel.builder(modelIdentifier).build();
+    }
+
+    //Releases the recognizers not used by any instance, called when the system asks to trim memory.
+    public void trimMemory() {
+        recognizerPool.trim();
+    }
+
     public void dispose() {
         backgroundExecutor.shutdown();
-        synchronized (instances) {
-            for (com.google.mlkit.vision.digitalink.DigitalInkRecognizer recognizer : instances.values()) {
-                recognizer.close();
-            }
-            instances.clear();
-        }
+        recognizerPool.closeAll();
+        sessions.clear();
     }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.google_mlkit_digital_ink_recognition;
 
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
 import androidx.annotation.NonNull;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.MethodChannel;
@@ -15,10 +19,28 @@ public class GoogleMlKitDigitalInkRecognitionPlugin implements FlutterPlugin {
     private final ExecutorService executor = Executors.newSingleThreadExecutor();
     private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
     private boolean isDisposed = false;
+    private Context applicationContext;
+    private final ComponentCallbacks2 componentCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= TRIM_MEMORY_RUNNING_LOW && digitalInkRecognizer != null) digitalInkRecognizer.trimMemory();
+        }
+
+        @Override
+        public void onLowMemory() {
+            if (digitalInkRecognizer != null) digitalInkRecognizer.trimMemory();
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration configuration) {
+        }
+    };
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
+        applicationContext = flutterPluginBinding.getApplicationContext();
+        applicationContext.registerComponentCallbacks(componentCallbacks);
 
         // Initialize in background thread
         executor.execute(() -> {
@@ -40,6 +62,8 @@ public class GoogleMlKitDigitalInkRecognitionPlugin implements FlutterPlugin {
         isDisposed = true;
         channel.setMethodCallHandler(null);
         channel = null;
+        applicationContext.unregisterComponentCallbacks(componentCallbacks);
+        applicationContext = null;
 
         // Shutdown executor and clean up
         executor.shutdownNow();
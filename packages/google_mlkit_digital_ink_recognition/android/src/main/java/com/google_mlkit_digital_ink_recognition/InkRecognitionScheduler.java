@@ -0,0 +1,109 @@
+package com.google_mlkit_digital_ink_recognition;
+
+import android.os.Handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+//Schedules the recognitions of ink sessions while the user is writing.
+//A request waits for the debounce window before it runs, a newer request for the same session supersedes the pending one,
+//and the result of a recognition that is already running is dropped once a newer request arrives.
+//Superseded and dropped requests reply with the "superseded" error. Only used from the main thread.
+class InkRecognitionScheduler {
+    static final String SUPERSEDED = "superseded";
+
+    interface Recognition {
+        void run(MethodChannel.Result result);
+    }
+
+    private static class Slot {
+        int generation;
+        Runnable pending;
+        MethodChannel.Result pendingResult;
+    }
+
+    private final Handler mainHandler;
+    private final Map<String, Slot> slots = new HashMap<>();
+    private long requested;
+    private long delivered;
+    private long superseded;
+    private long discarded;
+
+    InkRecognitionScheduler(Handler mainHandler) {
+        this.mainHandler = mainHandler;
+    }
+
+    void schedule(String sessionId, long debounceMillis, final MethodChannel.Result result, final Recognition recognition) {
+        requested++;
+        Slot slot = slots.get(sessionId);
+        if (slot == null) {
+            slot = new Slot();
+            slots.put(sessionId, slot);
+        }
+        cancelPending(slot);
+
+        final Slot scheduledSlot = slot;
+        final int generation = ++slot.generation;
+        slot.pendingResult = result;
+        slot.pending = () -> {
+            scheduledSlot.pending = null;
+            scheduledSlot.pendingResult = null;
+            recognition.run(new MethodChannel.Result() {
+                @Override
+                public void success(Object o) {
+                    if (isStale()) return;
+                    delivered++;
+                    result.success(o);
+                }
+
+                @Override
+                public void error(String errorCode, String errorMessage, Object errorDetails) {
+                    if (isStale()) return;
+                    delivered++;
+                    result.error(errorCode, errorMessage, errorDetails);
+                }
+
+                @Override
+                public void notImplemented() {
+                    if (isStale()) return;
+                    delivered++;
+                    result.notImplemented();
+                }
+
+                //A newer request was made while this one was running, its result is outdated.
+                private boolean isStale() {
+                    if (generation == scheduledSlot.generation && slots.get(sessionId) == scheduledSlot) return false;
+                    discarded++;
+                    result.error(SUPERSEDED, "A newer recognition was requested for the session", null);
+                    return true;
+                }
+            });
+        };
+        mainHandler.postDelayed(slot.pending, Math.max(debounceMillis, 0));
+    }
+
+    void remove(String sessionId) {
+        Slot slot = slots.remove(sessionId);
+        if (slot != null) cancelPending(slot);
+    }
+
+    private void cancelPending(Slot slot) {
+        if (slot.pending == null) return;
+        mainHandler.removeCallbacks(slot.pending);
+        superseded++;
+        slot.pendingResult.error(SUPERSEDED, "A newer recognition was requested for the session", null);
+        slot.pending = null;
+        slot.pendingResult = null;
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("requested", requested);
+        stats.put("delivered", delivered);
+        stats.put("superseded", superseded);
+        stats.put("discarded", discarded);
+        return stats;
+    }
+}
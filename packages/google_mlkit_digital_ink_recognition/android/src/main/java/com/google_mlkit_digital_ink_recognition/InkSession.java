@@ -0,0 +1,29 @@
+package com.google_mlkit_digital_ink_recognition;
+
+import com.google.mlkit.vision.digitalink.Ink;
+
+import java.util.List;
+
+//Ink that grows stroke by stroke, so dart only has to send the strokes added since the last recognition.
+//Sessions are used from the background executor, all access is synchronized.
+class InkSession {
+    private Ink.Builder inkBuilder = Ink.builder();
+    private int strokeCount;
+
+    synchronized int addStrokes(List<Ink.Stroke> strokes) {
+        for (Ink.Stroke stroke : strokes) {
+            inkBuilder.addStroke(stroke);
+        }
+        strokeCount += strokes.size();
+        return strokeCount;
+    }
+
+    synchronized void clear() {
+        inkBuilder = Ink.builder();
+        strokeCount = 0;
+    }
+
+    synchronized Ink build() {
+        return inkBuilder.build();
+    }
+}
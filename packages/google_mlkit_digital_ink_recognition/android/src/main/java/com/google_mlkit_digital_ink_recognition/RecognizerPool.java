@@ -0,0 +1,92 @@
+package com.google_mlkit_digital_ink_recognition;
+
+import com.google.mlkit.vision.digitalink.DigitalInkRecognition;
+import com.google.mlkit.vision.digitalink.DigitalInkRecognitionModel;
+import com.google.mlkit.vision.digitalink.DigitalInkRecognizer;
+import com.google.mlkit.vision.digitalink.DigitalInkRecognizerOptions;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Recognizers shared by model language tag, so instances recognizing the same language load the model only once.
+//Each dart instance holds one reference until it is closed. A recognizer without references is kept loaded among the
+//few most recently released ones, so calls without an instance do not reload the model every time.
+//Those are closed when they are evicted, on [trim] and on [closeAll].
+//Used from the background executor, all access is synchronized.
+class RecognizerPool {
+    private static final int MAX_IDLE = 2;
+
+    private static class Entry {
+        final DigitalInkRecognizer recognizer;
+        int references;
+
+        Entry(DigitalInkRecognizer recognizer) {
+            this.recognizer = recognizer;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    //Entries without references, eldest released first.
+    private final LinkedHashMap<String, Entry> idle = new LinkedHashMap<>();
+    //Language tag used by each instance id.
+    private final Map<String, String> instanceTags = new HashMap<>();
+
+    //Returns the recognizer for the instance, the first call for an instance takes a reference.
+    synchronized DigitalInkRecognizer getForInstance(String id, String tag, DigitalInkRecognitionModel model) {
+        String instanceTag = instanceTags.get(id);
+        if (instanceTag == null) {
+            instanceTags.put(id, tag);
+            return acquire(tag, model);
+        }
+        return entries.get(instanceTag).recognizer;
+    }
+
+    synchronized void releaseInstance(String id) {
+        String tag = instanceTags.remove(id);
+        if (tag != null) release(tag);
+    }
+
+    //Returns the recognizer for the tag, every acquire has to be followed by a release.
+    synchronized DigitalInkRecognizer acquire(String tag, DigitalInkRecognitionModel model) {
+        Entry entry = entries.get(tag);
+        if (entry == null) {
+            entry = new Entry(DigitalInkRecognition.getClient(DigitalInkRecognizerOptions.builder(model).build()));
+            entries.put(tag, entry);
+        }
+        idle.remove(tag);
+        entry.references++;
+        return entry.recognizer;
+    }
+
+    synchronized void release(String tag) {
+        Entry entry = entries.get(tag);
+        if (entry == null) return;
+        entry.references--;
+        if (entry.references > 0) return;
+        idle.put(tag, entry);
+        while (idle.size() > MAX_IDLE) {
+            String eldest = idle.keySet().iterator().next();
+            idle.remove(eldest).recognizer.close();
+            entries.remove(eldest);
+        }
+    }
+
+    //Closes the recognizers without references.
+    synchronized void trim() {
+        for (Map.Entry<String, Entry> entry : idle.entrySet()) {
+            entry.getValue().recognizer.close();
+            entries.remove(entry.getKey());
+        }
+        idle.clear();
+    }
+
+    synchronized void closeAll() {
+        for (Entry entry : entries.values()) {
+            entry.recognizer.close();
+        }
+        entries.clear();
+        idle.clear();
+        instanceTags.clear();
+    }
+}
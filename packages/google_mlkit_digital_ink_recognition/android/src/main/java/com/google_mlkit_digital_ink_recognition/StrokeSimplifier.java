@@ -0,0 +1,120 @@
+package com.google_mlkit_digital_ink_recognition;
+
+import com.google.mlkit.vision.digitalink.Ink;
+
+import java.util.Arrays;
+import java.util.Map;
+
+//Reduces the points of dense strokes before recognition, recognition time grows with the number of points.
+//Points closer than resampleDistance to the previous kept point, or drawn less than resampleInterval milliseconds
+//after it, are dropped first, then the Douglas-Peucker algorithm removes points that deviate less than tolerance
+//from the simplified line. The first and last points are always kept.
+class StrokeSimplifier {
+    private final float resampleDistance;
+    private final long resampleInterval;
+    private final float tolerance;
+
+    StrokeSimplifier(float resampleDistance, long resampleInterval, float tolerance) {
+        this.resampleDistance = resampleDistance;
+        this.resampleInterval = resampleInterval;
+        this.tolerance = tolerance;
+    }
+
+    //Returns null if the arguments do not ask for simplification.
+    static StrokeSimplifier fromArguments(Map<String, Object> arguments) {
+        if (arguments == null) return null;
+        Number resampleDistance = (Number) arguments.get("resampleDistance");
+        Number resampleInterval = (Number) arguments.get("resampleInterval");
+        Number tolerance = (Number) arguments.get("tolerance");
+        return new StrokeSimplifier(resampleDistance != null ? resampleDistance.floatValue() : 0,
+                resampleInterval != null ? resampleInterval.longValue() : 0,
+                tolerance != null ? tolerance.floatValue() : 0);
+    }
+
+    //Builds a stroke from interleaved x, y coordinates and the matching timestamps.
+    Ink.Stroke simplify(float[] coordinates, long[] times) {
+        int[] indices = select(coordinates, times);
+        return build(coordinates, times, indices, indices.length);
+    }
+
+    //Returns the indices of the points kept from interleaved x, y coordinates and the matching timestamps.
+    int[] select(float[] coordinates, long[] times) {
+        int count = times.length;
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) indices[i] = i;
+        if (count <= 2) return indices;
+
+        //Indices of the points kept by the distance and time based resampling.
+        int kept = 1;
+        float minDistanceSquared = resampleDistance * resampleDistance;
+        for (int i = 1; i < count - 1; i++) {
+            int last = indices[kept - 1];
+            if (times[i] - times[last] < resampleInterval) continue;
+            float dx = coordinates[2 * i] - coordinates[2 * last];
+            float dy = coordinates[2 * i + 1] - coordinates[2 * last + 1];
+            if (dx * dx + dy * dy >= minDistanceSquared) indices[kept++] = i;
+        }
+        indices[kept++] = count - 1;
+
+        if (tolerance <= 0 || kept <= 2) return Arrays.copyOf(indices, kept);
+        boolean[] keep = new boolean[kept];
+        keep[0] = true;
+        keep[kept - 1] = true;
+        //Iterative Douglas-Peucker over the resampled points, long strokes would overflow a recursive implementation.
+        int[] stack = new int[2 * kept];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = kept - 1;
+        float toleranceSquared = tolerance * tolerance;
+        while (top > 0) {
+            int end = stack[--top];
+            int start = stack[--top];
+            int farthest = -1;
+            float farthestDistance = toleranceSquared;
+            for (int i = start + 1; i < end; i++) {
+                float distance = distanceToSegmentSquared(coordinates, indices[i], indices[start], indices[end]);
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+            if (farthest < 0) continue;
+            keep[farthest] = true;
+            stack[top++] = start;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = end;
+        }
+
+        int simplified = 0;
+        for (int i = 0; i < kept; i++) {
+            if (keep[i]) indices[simplified++] = indices[i];
+        }
+        return Arrays.copyOf(indices, simplified);
+    }
+
+    private static float distanceToSegmentSquared(float[] coordinates, int point, int start, int end) {
+        float x = coordinates[2 * point];
+        float y = coordinates[2 * point + 1];
+        float x1 = coordinates[2 * start];
+        float y1 = coordinates[2 * start + 1];
+        float dx = coordinates[2 * end] - x1;
+        float dy = coordinates[2 * end + 1] - y1;
+        float lengthSquared = dx * dx + dy * dy;
+        float t = lengthSquared > 0 ? ((x - x1) * dx + (y - y1) * dy) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        float px = x1 + t * dx - x;
+        float py = y1 + t * dy - y;
+        return px * px + py * py;
+    }
+
+    //Builds a stroke from the points at the given indices, or from all points if indices is null.
+    static Ink.Stroke build(float[] coordinates, long[] times, int[] indices, int count) {
+        Ink.Stroke.Builder strokeBuilder = Ink.Stroke.builder();
+        for (int i = 0; i < count; i++) {
+            int point = indices != null ? indices[i] : i;
+            strokeBuilder.addPoint(Ink.Point.create(coordinates[2 * point], coordinates[2 * point + 1], times[point]));
+        }
+        return strokeBuilder.build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.google_mlkit_digital_ink_recognition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.mlkit.vision.digitalink.Ink;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DigitalInkRecognizerTest {
+    //Strokes as sent by Stroke.toJson: interleaved x, y and the matching timestamps.
+    private static Map<String, Object> packedStroke(float[] coordinates, long[] times) {
+        Map<String, Object> stroke = new HashMap<>();
+        stroke.put("xy", coordinates);
+        stroke.put("t", times);
+        return stroke;
+    }
+
+    //Strokes as sent before the packed format, one map per point.
+    private static Map<String, Object> pointStroke(float[] coordinates, long[] times) {
+        List<Map<String, Object>> points = new ArrayList<>(times.length);
+        for (int i = 0; i < times.length; i++) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("x", (double) coordinates[2 * i]);
+            point.put("y", (double) coordinates[2 * i + 1]);
+            point.put("t", times[i]);
+            points.add(point);
+        }
+        Map<String, Object> stroke = new HashMap<>();
+        stroke.put("points", points);
+        return stroke;
+    }
+
+    private static float[] coordinates(int count, float offset) {
+        float[] coordinates = new float[2 * count];
+        for (int i = 0; i < coordinates.length; i++) coordinates[i] = offset + i;
+        return coordinates;
+    }
+
+    private static long[] times(int count) {
+        long[] times = new long[count];
+        for (int i = 0; i < count; i++) times[i] = 1000 + 8L * i;
+        return times;
+    }
+
+    @Test
+    public void buildsPackedAndPointStrokes() {
+        List<Ink.Stroke> strokes = DigitalInkRecognizer.buildStrokes(Arrays.asList(
+                packedStroke(coordinates(3, 0), times(3)),
+                pointStroke(coordinates(4, 10), times(4))), null);
+
+        assertEquals(2, strokes.size());
+        assertEquals(3, strokes.get(0).getPoints().size());
+        assertEquals(4, strokes.get(1).getPoints().size());
+        Ink.Point point = strokes.get(1).getPoints().get(1);
+        assertEquals(12f, point.getX(), 0);
+        assertEquals(13f, point.getY(), 0);
+        assertEquals(1008L, (long) point.getTimestamp());
+    }
+
+    @Test
+    public void acceptsIntegerTimestampsInPointStrokes() {
+        Map<String, Object> stroke = pointStroke(coordinates(1, 0), times(1));
+        ((List<Map<String, Object>>) stroke.get("points")).get(0).put("t", 5);
+        List<Ink.Stroke> strokes = DigitalInkRecognizer.buildStrokes(Arrays.asList(stroke), null);
+
+        assertEquals(5L, (long) strokes.get(0).getPoints().get(0).getTimestamp());
+    }
+
+    @Test
+    public void rejectsCoordinatesNotMatchingTimestamps() {
+        assertNull(DigitalInkRecognizer.buildStrokes(Arrays.asList(
+                packedStroke(coordinates(3, 0), times(2))), null));
+        assertNull(DigitalInkRecognizer.buildStrokes(Arrays.asList(
+                packedStroke(new float[5], times(3))), null));
+    }
+
+    @Test
+    public void rejectsPackedStrokeWithoutTimestamps() {
+        Map<String, Object> stroke = new HashMap<>();
+        stroke.put("xy", coordinates(2, 0));
+        assertNull(DigitalInkRecognizer.buildStrokes(Arrays.asList(stroke), null));
+    }
+
+    @Test
+    public void skipsEmptyStrokes() {
+        List<Ink.Stroke> strokes = DigitalInkRecognizer.buildStrokes(Arrays.asList(
+                packedStroke(new float[0], new long[0]),
+                pointStroke(new float[0], new long[0]),
+                packedStroke(coordinates(2, 0), times(2))), null);
+
+        assertEquals(1, strokes.size());
+        assertEquals(2, strokes.get(0).getPoints().size());
+        assertEquals(0, DigitalInkRecognizer.buildStrokes(new ArrayList<>(), null).size());
+    }
+
+    @Test
+    public void comparesPackedAndPointParsing() {
+        //A handwritten line of text: 40 strokes of 120 points sampled every 8 milliseconds.
+        List<Map<String, Object>> packed = new ArrayList<>();
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            packed.add(packedStroke(coordinates(120, i), times(120)));
+            points.add(pointStroke(coordinates(120, i), times(120)));
+        }
+        long packedNanos = measure(packed);
+        long pointNanos = measure(points);
+
+        System.out.println("buildStrokes: packed " + packedNanos / 1000 + " us, point maps "
+                + pointNanos / 1000 + " us per ink of 4800 points");
+        assertEquals(40, DigitalInkRecognizer.buildStrokes(packed, null).size());
+    }
+
+    private static long measure(List<Map<String, Object>> strokes) {
+        int runs = 200;
+        for (int i = 0; i < runs; i++) DigitalInkRecognizer.buildStrokes(strokes, null);
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) DigitalInkRecognizer.buildStrokes(strokes, null);
+        return (System.nanoTime() - start) / runs;
+    }
+}
@@ -0,0 +1,129 @@
+package com.google_mlkit_digital_ink_recognition;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class StrokeSimplifierTest {
+    //A stroke sampled every millisecond along a wobbly curve, like a fast touch screen records it.
+    private static float[] recordedCoordinates(int count, long seed) {
+        Random random = new Random(seed);
+        float[] coordinates = new float[2 * count];
+        for (int i = 0; i < count; i++) {
+            double angle = i * 0.01;
+            coordinates[2 * i] = (float) (i * 0.5 + 20 * Math.sin(angle) + random.nextGaussian() * 0.2);
+            coordinates[2 * i + 1] = (float) (100 + 40 * Math.cos(angle * 1.7) + random.nextGaussian() * 0.2);
+        }
+        return coordinates;
+    }
+
+    private static long[] times(int count, long interval) {
+        long[] times = new long[count];
+        for (int i = 0; i < count; i++) times[i] = 1000 + i * interval;
+        return times;
+    }
+
+    private static float distanceToSegment(float[] coordinates, int point, int start, int end) {
+        double x = coordinates[2 * point];
+        double y = coordinates[2 * point + 1];
+        double x1 = coordinates[2 * start];
+        double y1 = coordinates[2 * start + 1];
+        double dx = coordinates[2 * end] - x1;
+        double dy = coordinates[2 * end + 1] - y1;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? ((x - x1) * dx + (y - y1) * dy) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        return (float) Math.hypot(x1 + t * dx - x, y1 + t * dy - y);
+    }
+
+    @Test
+    public void keepsEndpoints() {
+        float[] coordinates = recordedCoordinates(500, 1);
+        int[] indices = new StrokeSimplifier(5, 10, 2).select(coordinates, times(500, 1));
+
+        assertEquals(0, indices[0]);
+        assertEquals(499, indices[indices.length - 1]);
+    }
+
+    @Test
+    public void keepsShortStrokes() {
+        float[] coordinates = {0, 0, 0.1f, 0.1f};
+        assertArrayEquals(new int[]{0, 1}, new StrokeSimplifier(10, 100, 10).select(coordinates, times(2, 1)));
+        assertArrayEquals(new int[]{0}, new StrokeSimplifier(10, 100, 10).select(new float[]{1, 1}, times(1, 1)));
+    }
+
+    @Test
+    public void dropsOnlyPointsWithinTolerance() {
+        float tolerance = 1.5f;
+        float[] coordinates = recordedCoordinates(2000, 2);
+        int[] indices = new StrokeSimplifier(0, 0, tolerance).select(coordinates, times(2000, 1));
+
+        assertTrue(indices.length < 2000);
+        for (int k = 0; k < indices.length - 1; k++) {
+            assertTrue(indices[k] < indices[k + 1]);
+            for (int point = indices[k] + 1; point < indices[k + 1]; point++) {
+                assertTrue(distanceToSegment(coordinates, point, indices[k], indices[k + 1]) <= tolerance + 1e-3f);
+            }
+        }
+    }
+
+    @Test
+    public void keepsPointsOutsideTolerance() {
+        float[] coordinates = {0, 0, 5, 3, 10, 0};
+        assertArrayEquals(new int[]{0, 1, 2}, new StrokeSimplifier(0, 0, 2).select(coordinates, times(3, 1)));
+        assertArrayEquals(new int[]{0, 2}, new StrokeSimplifier(0, 0, 4).select(coordinates, times(3, 1)));
+    }
+
+    @Test
+    public void simplifiesVeryLongStrokeWithoutOverflow() {
+        //Points on a convex curve make a recursive Douglas-Peucker recurse once per point.
+        int count = 200_000;
+        float[] coordinates = new float[2 * count];
+        for (int i = 0; i < count; i++) {
+            coordinates[2 * i] = i;
+            coordinates[2 * i + 1] = (float) Math.pow(1.0001, i);
+        }
+        int[] indices = new StrokeSimplifier(0, 0, 0.01f).select(coordinates, times(count, 1));
+
+        assertEquals(0, indices[0]);
+        assertEquals(count - 1, indices[indices.length - 1]);
+    }
+
+    @Test
+    public void decimatesAtDistanceThreshold() {
+        float[] coordinates = new float[2 * 10];
+        for (int i = 0; i < 10; i++) coordinates[2 * i] = i;
+        int[] indices = new StrokeSimplifier(3, 0, 0).select(coordinates, times(10, 1));
+
+        assertArrayEquals(new int[]{0, 3, 6, 9}, indices);
+    }
+
+    @Test
+    public void decimatesAtTimeThreshold() {
+        float[] coordinates = new float[2 * 11];
+        for (int i = 0; i < 11; i++) coordinates[2 * i] = 10 * i;
+        int[] indices = new StrokeSimplifier(0, 25, 0).select(coordinates, times(11, 10));
+
+        assertArrayEquals(new int[]{0, 3, 6, 9, 10}, indices);
+    }
+
+    @Test
+    public void reportsPointReductionOnRecordedInk() {
+        int count = 5000;
+        float[] coordinates = recordedCoordinates(count, 3);
+        long[] times = times(count, 4);
+        StrokeSimplifier simplifier = new StrokeSimplifier(2, 0, 1);
+
+        long start = System.nanoTime();
+        int[] indices = simplifier.select(coordinates, times);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("StrokeSimplifier: " + count + " -> " + indices.length + " points in "
+                + elapsed / 1000 + " us");
+        assertTrue(indices.length * 4 < count);
+    }
+}
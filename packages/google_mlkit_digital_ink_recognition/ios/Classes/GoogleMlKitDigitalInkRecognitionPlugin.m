@@ -71,13 +71,33 @@
     NSArray *strokeList = call.arguments[@"ink"][@"strokes"];
     for (NSDictionary *strokeMap in strokeList) {
         NSMutableArray *stroke = [NSMutableArray array];
-        NSArray *pointsList = strokeMap[@"points"];
-        for (NSDictionary *pointMap in pointsList) {
-            NSNumber *x = pointMap[@"x"];
-            NSNumber *y = pointMap[@"y"];
-            NSNumber *t = pointMap[@"t"];
-            MLKStrokePoint *strokePoint = [[MLKStrokePoint alloc] initWithX:x.floatValue y:y.floatValue t:t.longValue];
-            [stroke addObject:strokePoint];
+        id packedCoordinates = strokeMap[@"xy"];
+        if ([packedCoordinates isKindOfClass: [FlutterStandardTypedData class]]) {
+            // Packed stroke: interleaved x, y as Float32List and timestamps as Int64List.
+            FlutterStandardTypedData *packedTimes = strokeMap[@"t"];
+            if (![packedTimes isKindOfClass: [FlutterStandardTypedData class]] ||
+                ((FlutterStandardTypedData *)packedCoordinates).elementCount != 2 * packedTimes.elementCount) {
+                FlutterError *error = [FlutterError errorWithCode:@"Ink Error"
+                                                          message:@"Failed to build ink object"
+                                                          details:@"Packed stroke needs two coordinates per timestamp"];
+                result(error);
+                return;
+            }
+            const float *coordinates = ((FlutterStandardTypedData *)packedCoordinates).data.bytes;
+            const int64_t *times = packedTimes.data.bytes;
+            for (NSUInteger i = 0; i < packedTimes.elementCount; i++) {
+                MLKStrokePoint *strokePoint = [[MLKStrokePoint alloc] initWithX:coordinates[2 * i] y:coordinates[2 * i + 1] t:times[i]];
+                [stroke addObject:strokePoint];
+            }
+        } else {
+            NSArray *pointsList = strokeMap[@"points"];
+            for (NSDictionary *pointMap in pointsList) {
+                NSNumber *x = pointMap[@"x"];
+                NSNumber *y = pointMap[@"y"];
+                NSNumber *t = pointMap[@"t"];
+                MLKStrokePoint *strokePoint = [[MLKStrokePoint alloc] initWithX:x.floatValue y:y.floatValue t:t.longValue];
+                [stroke addObject:strokePoint];
+            }
         }
         [strokes addObject:[[MLKStroke alloc] initWithPoints:stroke]];
     }
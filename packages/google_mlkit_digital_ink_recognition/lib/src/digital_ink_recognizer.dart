@@ -1,4 +1,5 @@
 import 'dart:math';
+import 'dart:typed_data';
 
 import 'package:flutter/services.dart';
 import 'package:google_mlkit_commons/google_mlkit_commons.dart';
@@ -24,14 +25,17 @@ class DigitalInkRecognizer {
 
   /// Performs a recognition of the text written on screen.
   /// It takes an instance of [Ink] which refers to the user input as a list of [Stroke].
+  /// If [simplification] is given, the strokes are simplified natively before recognition (Android only).
   Future<List<RecognitionCandidate>> recognize(Ink ink,
-      {DigitalInkRecognitionContext? context}) async {
+      {DigitalInkRecognitionContext? context,
+      StrokeSimplification? simplification}) async {
     final result = await _channel
         .invokeMethod('vision#startDigitalInkRecognizer', <String, dynamic>{
       'id': id,
       'ink': ink.toJson(),
       'context': context?._isValid == true ? context?.toJson() : null,
       'model': languageCode,
+      if (simplification != null) 'simplification': simplification.toJson(),
     });
 
     final List<RecognitionCandidate> candidates = <RecognitionCandidate>[];
@@ -43,11 +47,169 @@ class DigitalInkRecognizer {
     return candidates;
   }
 
+  /// Performs a recognition of the ink accumulated in [session].
+  ///
+  /// Only the strokes added to the session are sent over the platform channel, not the whole ink.
+  /// The recognition starts after [debounce], a newer call for the same session supersedes it while it waits,
+  /// and its result is dropped if a newer call is made while it runs. Superseded calls return null.
+  /// Only available on Android.
+  Future<List<RecognitionCandidate>?> recognizeSession(
+      DigitalInkSession session,
+      {DigitalInkRecognitionContext? context,
+      Duration debounce = Duration.zero}) async {
+    final dynamic result;
+    try {
+      result = await _channel.invokeMethod(
+          'vision#startDigitalInkRecognizerSession', <String, dynamic>{
+        'id': id,
+        'sessionId': session.id,
+        'context': context?._isValid == true ? context?.toJson() : null,
+        'model': languageCode,
+        'debounceMillis': debounce.inMilliseconds,
+      });
+    } on PlatformException catch (e) {
+      if (e.code == 'superseded') return null;
+      rethrow;
+    }
+
+    final List<RecognitionCandidate> candidates = <RecognitionCandidate>[];
+    for (final dynamic json in result) {
+      candidates.add(RecognitionCandidate.fromJson(json));
+    }
+
+    return candidates;
+  }
+
+  /// Recognizes [ink] with the models of all [languageCodes] at the same time.
+  ///
+  /// The candidates of all languages are merged and sorted by score, most likely first,
+  /// candidates without a score come last. The models must be downloaded already,
+  /// languages that fail are reported in [MultiLanguageRecognitionResult.errors].
+  /// Only available on Android.
+  static Future<MultiLanguageRecognitionResult> recognizeMultiLanguage(
+      Ink ink, List<String> languageCodes,
+      {DigitalInkRecognitionContext? context,
+      StrokeSimplification? simplification}) async {
+    final result = await _channel.invokeMapMethod<String, dynamic>(
+        'vision#startDigitalInkRecognizerMultiLanguage', <String, dynamic>{
+      'ink': ink.toJson(),
+      'context': context?._isValid == true ? context?.toJson() : null,
+      'models': languageCodes,
+      if (simplification != null) 'simplification': simplification.toJson(),
+    });
+    return MultiLanguageRecognitionResult.fromJson(result!);
+  }
+
+  /// Returns how many session recognitions were requested, delivered, superseded while waiting
+  /// and discarded because a newer one was requested while they ran.
+  /// Only available on Android.
+  static Future<InkSchedulerStats> getSchedulerStats() async {
+    final result = await _channel
+        .invokeMapMethod<String, dynamic>('vision#getDigitalInkSchedulerStats');
+    return InkSchedulerStats.fromJson(result!);
+  }
+
   /// Closes the recognizer and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod('vision#closeDigitalInkRecognizer', {'id': id});
 }
 
+/// An ink kept natively that grows stroke by stroke.
+///
+/// Add each stroke when the pen is lifted and recognize it with [DigitalInkRecognizer.recognizeSession],
+/// so the cost of a recognition does not grow with the strokes drawn before.
+/// Only available on Android.
+class DigitalInkSession {
+  /// Session id.
+  final id = DateTime.now().microsecondsSinceEpoch.toString();
+
+  /// If given, strokes are simplified natively when they are added.
+  final StrokeSimplification? simplification;
+
+  /// Constructor to create an instance of [DigitalInkSession].
+  DigitalInkSession({this.simplification});
+
+  /// Adds a [stroke] to the ink, returns the number of strokes in the session.
+  Future<int> addStroke(Stroke stroke) => addStrokes([stroke]);
+
+  /// Adds the [strokes] to the ink, returns the number of strokes in the session.
+  Future<int> addStrokes(List<Stroke> strokes) async {
+    final result = await DigitalInkRecognizer._channel
+        .invokeMethod<int>('vision#appendDigitalInkSession', <String, dynamic>{
+      'sessionId': id,
+      'strokes': strokes.map((stroke) => stroke.toJson()).toList(),
+      if (simplification != null) 'simplification': simplification!.toJson(),
+    });
+    return result!;
+  }
+
+  /// Removes all strokes from the ink.
+  Future<void> clear() => DigitalInkRecognizer._channel.invokeMethod(
+      'vision#clearDigitalInkSession', <String, dynamic>{'sessionId': id});
+
+  /// Releases the ink kept natively.
+  Future<void> close() => DigitalInkRecognizer._channel.invokeMethod(
+      'vision#closeDigitalInkSession', <String, dynamic>{'sessionId': id});
+}
+
+/// Statistics of the session recognitions of [DigitalInkRecognizer.recognizeSession].
+class InkSchedulerStats {
+  /// Number of requested recognitions.
+  final int requested;
+
+  /// Number of recognitions whose result was delivered.
+  final int delivered;
+
+  /// Number of recognitions superseded by a newer request before they started.
+  final int superseded;
+
+  /// Number of recognitions whose result was dropped because a newer request was made while they ran.
+  final int discarded;
+
+  /// Constructor to create an instance of [InkSchedulerStats].
+  InkSchedulerStats(
+      {required this.requested,
+      required this.delivered,
+      required this.superseded,
+      required this.discarded});
+
+  /// Returns an instance of [InkSchedulerStats] from a given [json].
+  factory InkSchedulerStats.fromJson(Map<String, dynamic> json) =>
+      InkSchedulerStats(
+          requested: json['requested'],
+          delivered: json['delivered'],
+          superseded: json['superseded'],
+          discarded: json['discarded']);
+}
+
+/// Simplification of dense strokes before recognition, recognition time grows with the number of points.
+///
+/// Points closer than [resampleDistance] to the previous kept point, or drawn less than [resampleInterval]
+/// milliseconds after it, are dropped first, then points deviating less than [tolerance] from the simplified
+/// stroke are removed (Douglas-Peucker).
+/// Distances are in the same units as [StrokePoint], the first and last point of a stroke are always kept.
+class StrokeSimplification {
+  /// The minimum distance between consecutive points.
+  final double resampleDistance;
+
+  /// The minimum time in milliseconds between consecutive points.
+  final int resampleInterval;
+
+  /// The maximum distance of a removed point from the simplified stroke, 0 disables this step.
+  final double tolerance;
+
+  /// Constructor to create an instance of [StrokeSimplification].
+  StrokeSimplification(
+      {this.resampleDistance = 0, this.resampleInterval = 0, this.tolerance = 1});
+
+  /// Returns a json representation of an instance of [StrokeSimplification].
+  Map<String, dynamic> toJson() => {
+        'resampleDistance': resampleDistance,
+        'resampleInterval': resampleInterval,
+        'tolerance': tolerance,
+      };
+}
+
 /// Information about the context in which an ink has been drawn.
 /// Pass this object to a [DigitalInkRecognizer] alongside an [Ink] to improve the recognition quality.
 class DigitalInkRecognitionContext {
@@ -104,9 +266,20 @@ class Stroke {
   List<StrokePoint> points = [];
 
   /// Returns a json representation of an instance of [Stroke].
-  Map<String, dynamic> toJson() => {
-        'points': points.map((point) => point.toJson()).toList(),
-      };
+  ///
+  /// Points are packed into typed lists, interleaved x and y coordinates in 'xy' and timestamps in 't',
+  /// so they cross the platform channel as two arrays instead of a map per point.
+  Map<String, dynamic> toJson() {
+    final coordinates = Float32List(points.length * 2);
+    final times = Int64List(points.length);
+    for (var i = 0; i < points.length; i++) {
+      final point = points[i];
+      coordinates[2 * i] = point.x;
+      coordinates[2 * i + 1] = point.y;
+      times[i] = point.t;
+    }
+    return {'xy': coordinates, 't': times};
+  }
 }
 
 /// A single touch point from the user.
@@ -162,3 +335,51 @@ class RecognitionCandidate {
         score: json['score'],
       );
 }
+
+/// The result of [DigitalInkRecognizer.recognizeMultiLanguage].
+class MultiLanguageRecognitionResult {
+  /// The candidates of all languages, most likely first.
+  final List<LanguageRecognitionCandidate> candidates;
+
+  /// Error messages of the languages that could not be recognized, keyed by language code.
+  final Map<String, String> errors;
+
+  /// Constructor to create an instance of [MultiLanguageRecognitionResult].
+  MultiLanguageRecognitionResult(
+      {required this.candidates, required this.errors});
+
+  /// Returns an instance of [MultiLanguageRecognitionResult] from a given [json].
+  factory MultiLanguageRecognitionResult.fromJson(Map<String, dynamic> json) =>
+      MultiLanguageRecognitionResult(
+        candidates: (json['candidates'] as List)
+            .map((candidate) => LanguageRecognitionCandidate.fromJson(candidate))
+            .toList(),
+        errors: Map<String, String>.from(json['errors']),
+      );
+}
+
+/// A recognition candidate of [DigitalInkRecognizer.recognizeMultiLanguage] with the language of the model that produced it.
+class LanguageRecognitionCandidate {
+  /// The textual representation of this candidate.
+  final String text;
+
+  /// Score of the candidate, see [RecognitionCandidate.score].
+  ///
+  /// Null when the model does not populate it, such candidates are ranked after the scored ones.
+  final double? score;
+
+  /// The language code of the model that produced this candidate.
+  final String languageCode;
+
+  /// Constructor to create an instance of [LanguageRecognitionCandidate].
+  LanguageRecognitionCandidate(
+      {required this.text, required this.score, required this.languageCode});
+
+  /// Returns an instance of [LanguageRecognitionCandidate] from a given [json].
+  factory LanguageRecognitionCandidate.fromJson(Map<dynamic, dynamic> json) =>
+      LanguageRecognitionCandidate(
+        text: json['text'],
+        score: json['score'],
+        languageCode: json['language'],
+      );
+}
@@ -0,0 +1,86 @@
+package com.google_mlkit_entity_extraction;
+
+import com.google.mlkit.nl.entityextraction.DateTimeEntity;
+import com.google.mlkit.nl.entityextraction.Entity;
+import com.google.mlkit.nl.entityextraction.EntityAnnotation;
+import com.google.mlkit.nl.entityextraction.FlightNumberEntity;
+import com.google.mlkit.nl.entityextraction.IbanEntity;
+import com.google.mlkit.nl.entityextraction.IsbnEntity;
+import com.google.mlkit.nl.entityextraction.MoneyEntity;
+import com.google.mlkit.nl.entityextraction.PaymentCardEntity;
+import com.google.mlkit.nl.entityextraction.TrackingNumberEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Converts entity annotations into the maps sent to dart.
+class AnnotationSerializer {
+    static List<Map<String, Object>> serialize(List<EntityAnnotation> entityAnnotations) {
+        List<Map<String, Object>> allAnnotations = new ArrayList<>(entityAnnotations.size());
+        for (EntityAnnotation entityAnnotation : entityAnnotations) {
+            allAnnotations.add(serialize(entityAnnotation));
+        }
+        return allAnnotations;
+    }
+
+    static Map<String, Object> serialize(EntityAnnotation entityAnnotation) {
+        Map<String, Object> annotation = new HashMap<>();
+        List<Entity> entities = entityAnnotation.getEntities();
+        annotation.put("text", entityAnnotation.getAnnotatedText());
+        annotation.put("start", entityAnnotation.getStart());
+        annotation.put("end", entityAnnotation.getEnd());
+        List<Map<String, Object>> allEntities = new ArrayList<>();
+        for (Entity entity : entities) {
+            Map<String, Object> entityData = new HashMap<>();
+            entityData.put("type", entity.getType());
+            entityData.put("raw", entity.toString());
+            switch (entity.getType()) {
+                case Entity.TYPE_ADDRESS:
+                case Entity.TYPE_URL:
+                case Entity.TYPE_PHONE:
+                case Entity.TYPE_EMAIL:
+                    break;
+                case Entity.TYPE_DATE_TIME:
+                    DateTimeEntity dateTimeEntity = entity.asDateTimeEntity();
+                    entityData.put("dateTimeGranularity", dateTimeEntity.getDateTimeGranularity() + 1);
+                    entityData.put("timestamp", dateTimeEntity.getTimestampMillis());
+                    break;
+                case Entity.TYPE_FLIGHT_NUMBER:
+                    FlightNumberEntity flightNumberEntity = entity.asFlightNumberEntity();
+                    entityData.put("code", flightNumberEntity.getAirlineCode());
+                    entityData.put("number", flightNumberEntity.getFlightNumber());
+                    break;
+                case Entity.TYPE_IBAN:
+                    IbanEntity ibanEntity = entity.asIbanEntity();
+                    entityData.put("iban", ibanEntity.getIban());
+                    entityData.put("code", ibanEntity.getIbanCountryCode());
+                    break;
+                case Entity.TYPE_ISBN:
+                    IsbnEntity isbnEntity = entity.asIsbnEntity();
+                    entityData.put("isbn", isbnEntity.getIsbn());
+                    break;
+                case Entity.TYPE_MONEY:
+                    MoneyEntity moneyEntity = entity.asMoneyEntity();
+                    entityData.put("fraction", moneyEntity.getFractionalPart());
+                    entityData.put("integer", moneyEntity.getIntegerPart());
+                    entityData.put("unnormalized", moneyEntity.getUnnormalizedCurrency());
+                    break;
+                case Entity.TYPE_PAYMENT_CARD:
+                    PaymentCardEntity paymentCardEntity = entity.asPaymentCardEntity();
+                    entityData.put("network", paymentCardEntity.getPaymentCardNetwork());
+                    entityData.put("number", paymentCardEntity.getPaymentCardNumber());
+                    break;
+                case Entity.TYPE_TRACKING_NUMBER:
+                    TrackingNumberEntity trackingNumberEntity = entity.asTrackingNumberEntity();
+                    entityData.put("carrier", trackingNumberEntity.getParcelCarrier());
+                    entityData.put("number", trackingNumberEntity.getParcelTrackingNumber());
+                    break;
+            }
+            allEntities.add(entityData);
+        }
+        annotation.put("entities", allEntities);
+        return annotation;
+    }
+}
@@ -0,0 +1,140 @@
+package com.google_mlkit_entity_extraction;
+
+import android.os.SystemClock;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.mlkit.nl.entityextraction.EntityAnnotation;
+import com.google_mlkit_commons.ResultStream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+//Annotates a list of texts with a single extractor and the same parameters.
+//A few annotations are kept in flight, so the extractor never waits for the next text. Texts repeated in the batch
+//are annotated once and reported at each of their positions. Every text is pushed to dart through [ResultStream]
+//when it completes, the method call itself replies with a summary once all texts are done.
+class BatchEntityExtraction {
+    static final int MAX_IN_FLIGHT = 4;
+
+    //Starts the annotation of one text, the listeners are called on the main thread.
+    interface Annotator {
+        void annotate(String text, OnSuccessListener<List<EntityAnnotation>> onSuccess, OnFailureListener onFailure);
+    }
+
+    private final Annotator annotator;
+    private final int count;
+    private final List<String> uniqueTexts;
+    private final List<List<Integer>> positions;
+    private final String streamId;
+    private final MethodChannel.Result result;
+    private final Runnable onFailure;
+    private final long start = SystemClock.elapsedRealtime();
+    private int next;
+    private int completed;
+    private int failed;
+
+    BatchEntityExtraction(com.google.mlkit.nl.entityextraction.EntityExtractor extractor,
+                          ExtractionParameters parameters,
+                          List<String> texts,
+                          String streamId,
+                          MethodChannel.Result result,
+                          Runnable onFailure) {
+        this((text, onSuccess, onError) -> extractor.annotate(parameters.build(text))
+                        .addOnSuccessListener(onSuccess)
+                        .addOnFailureListener(onError),
+                texts, streamId, result, onFailure);
+    }
+
+    BatchEntityExtraction(Annotator annotator,
+                          List<String> texts,
+                          String streamId,
+                          MethodChannel.Result result,
+                          Runnable onFailure) {
+        this.annotator = annotator;
+        this.count = texts.size();
+        this.streamId = streamId;
+        this.result = result;
+        this.onFailure = onFailure;
+        Map<String, List<Integer>> positionsByText = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            List<Integer> textPositions = positionsByText.get(texts.get(i));
+            if (textPositions == null) {
+                textPositions = new ArrayList<>(1);
+                positionsByText.put(texts.get(i), textPositions);
+            }
+            textPositions.add(i);
+        }
+        this.uniqueTexts = new ArrayList<>(positionsByText.keySet());
+        this.positions = new ArrayList<>(positionsByText.values());
+    }
+
+    void start() {
+        if (uniqueTexts.isEmpty()) {
+            result.success(summary());
+            return;
+        }
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            annotateNext();
+        }
+    }
+
+    private void annotateNext() {
+        if (next >= uniqueTexts.size()) return;
+        final int unique = next++;
+        final long processStart = SystemClock.elapsedRealtime();
+        annotator.annotate(uniqueTexts.get(unique),
+                entityAnnotations -> {
+                    List<Map<String, Object>> serialized = AnnotationSerializer.serialize(entityAnnotations);
+                    for (int index : positions.get(unique)) {
+                        Map<String, Object> item = create(index, "success", processStart);
+                        item.put("result", serialized);
+                        ResultStream.emit(streamId, item);
+                    }
+                    complete(unique, true);
+                },
+                e -> {
+                    onFailure.run();
+                    for (int index : positions.get(unique)) {
+                        Map<String, Object> item = create(index, "error", processStart);
+                        item.put("code", "EntityExtractorError");
+                        item.put("message", e.toString());
+                        ResultStream.emit(streamId, item);
+                    }
+                    complete(unique, false);
+                });
+    }
+
+    private Map<String, Object> create(int index, String status, long processStart) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("index", index);
+        item.put("status", status);
+        item.put("processMillis", SystemClock.elapsedRealtime() - processStart);
+        return item;
+    }
+
+    private void complete(int unique, boolean success) {
+        int done = positions.get(unique).size();
+        completed += done;
+        if (!success) failed += done;
+        if (completed == count) {
+            result.success(summary());
+        } else {
+            annotateNext();
+        }
+    }
+
+    private Map<String, Object> summary() {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("count", count);
+        summary.put("annotated", uniqueTexts.size());
+        summary.put("failed", failed);
+        summary.put("totalMillis", SystemClock.elapsedRealtime() - start);
+        return summary;
+    }
+}
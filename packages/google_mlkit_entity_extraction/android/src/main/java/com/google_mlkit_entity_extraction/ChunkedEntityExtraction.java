@@ -0,0 +1,163 @@
+package com.google_mlkit_entity_extraction;
+
+import android.os.SystemClock;
+
+import com.google.mlkit.nl.entityextraction.EntityAnnotation;
+import com.google_mlkit_commons.ResultStream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+//Annotates a long text in overlapping windows, a few of them in parallel.
+//Offsets are remapped to the original text and every window is pushed to dart through [ResultStream] as soon as it is done.
+//Each window owns the annotations starting in its own part of the text, which reaches into the middle of the overlaps,
+//so an entity seen by two windows is reported once. An annotation running into the end of a window may be cut there,
+//it is left to the next window, which sees it in full.
+class ChunkedEntityExtraction {
+    private static final int MAX_IN_FLIGHT = 4;
+
+    static class Window {
+        final int start;
+        final int end;
+        int ownStart;
+        int ownEnd;
+
+        Window(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final com.google.mlkit.nl.entityextraction.EntityExtractor extractor;
+    private final ExtractionParameters parameters;
+    private final String text;
+    private final String streamId;
+    private final MethodChannel.Result result;
+    private final Runnable onFailure;
+    private final List<Window> windows;
+    private final long start = SystemClock.elapsedRealtime();
+    private int next;
+    private int completed;
+    private int annotations;
+    private boolean failed;
+
+    ChunkedEntityExtraction(com.google.mlkit.nl.entityextraction.EntityExtractor extractor,
+                            ExtractionParameters parameters,
+                            String text,
+                            int windowLength,
+                            int overlap,
+                            String streamId,
+                            MethodChannel.Result result,
+                            Runnable onFailure) {
+        this.extractor = extractor;
+        this.parameters = parameters;
+        this.text = text;
+        this.streamId = streamId;
+        this.result = result;
+        this.onFailure = onFailure;
+        this.windows = split(text, windowLength, overlap);
+    }
+
+    void start() {
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            annotateNext();
+        }
+    }
+
+    private void annotateNext() {
+        if (next >= windows.size() || failed) return;
+        final int index = next++;
+        final Window window = windows.get(index);
+        extractor.annotate(parameters.build(text.substring(window.start, window.end)))
+                .addOnSuccessListener(entityAnnotations -> {
+                    if (failed) return;
+                    List<Map<String, Object>> accepted = new ArrayList<>();
+                    for (EntityAnnotation entityAnnotation : entityAnnotations) {
+                        int[] offsets = remap(windows, index, entityAnnotation.getStart(), entityAnnotation.getEnd());
+                        if (offsets == null) continue;
+                        Map<String, Object> annotation = AnnotationSerializer.serialize(entityAnnotation);
+                        annotation.put("start", offsets[0]);
+                        annotation.put("end", offsets[1]);
+                        accepted.add(annotation);
+                    }
+                    annotations += accepted.size();
+
+                    Map<String, Object> event = new HashMap<>();
+                    event.put("index", index);
+                    event.put("count", windows.size());
+                    event.put("annotations", accepted);
+                    ResultStream.emit(streamId, event);
+
+                    completed++;
+                    if (completed == windows.size()) {
+                        result.success(summary());
+                    } else {
+                        annotateNext();
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    if (failed) return;
+                    failed = true;
+                    onFailure.run();
+                    result.error("EntityExtractorError", e.toString(), null);
+                });
+    }
+
+    //Returns the offsets in the original text of an annotation found by the window at the index,
+    //null if another window reports it.
+    static int[] remap(List<Window> windows, int index, int start, int end) {
+        Window window = windows.get(index);
+        int annotationStart = window.start + start;
+        int annotationEnd = window.start + end;
+        return owns(windows, index, annotationStart, annotationEnd) ? new int[]{annotationStart, annotationEnd} : null;
+    }
+
+    //Whether the window at the index reports the annotation with the given offsets in the original text.
+    static boolean owns(List<Window> windows, int index, int annotationStart, int annotationEnd) {
+        Window window = windows.get(index);
+        boolean last = index == windows.size() - 1;
+        if (annotationStart < window.ownStart) {
+            //Owned by the previous window, unless it ran into the end of that window and was left to this one.
+            return annotationEnd >= windows.get(index - 1).end;
+        }
+        if (annotationStart >= window.ownEnd) return false;
+        //May be cut at the end of this window, the next window sees it in full if it starts within that window.
+        return last || annotationEnd < window.end || annotationStart < windows.get(index + 1).start;
+    }
+
+    private Map<String, Object> summary() {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("windows", windows.size());
+        summary.put("annotations", annotations);
+        summary.put("totalMillis", SystemClock.elapsedRealtime() - start);
+        return summary;
+    }
+
+    static List<Window> split(String text, int windowLength, int overlap) {
+        overlap = Math.max(0, Math.min(overlap, windowLength / 2));
+        List<Window> windows = new ArrayList<>();
+        int windowStart = 0;
+        while (true) {
+            int windowEnd = Math.min(windowStart + windowLength, text.length());
+            //Never split a surrogate pair.
+            if (windowEnd < text.length() && Character.isLowSurrogate(text.charAt(windowEnd))) windowEnd--;
+            windows.add(new Window(windowStart, windowEnd));
+            if (windowEnd == text.length()) break;
+            windowStart = windowEnd - overlap;
+            if (Character.isLowSurrogate(text.charAt(windowStart))) windowStart--;
+        }
+
+        for (int i = 0; i < windows.size(); i++) {
+            Window window = windows.get(i);
+            window.ownStart = i == 0 ? 0 : windows.get(i - 1).ownEnd;
+            window.ownEnd = i == windows.size() - 1
+                    ? text.length()
+                    : (windows.get(i + 1).start + window.end) / 2;
+        }
+        return windows;
+    }
+}
@@ -1,41 +1,56 @@
 package com.google_mlkit_entity_extraction;
 
+import android.content.Context;
+
 import androidx.annotation.NonNull;
 
-import com.google.mlkit.nl.entityextraction.DateTimeEntity;
-import com.google.mlkit.nl.entityextraction.Entity;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.mlkit.nl.entityextraction.EntityAnnotation;
 import com.google.mlkit.nl.entityextraction.EntityExtraction;
 import com.google.mlkit.nl.entityextraction.EntityExtractionParams;
 import com.google.mlkit.nl.entityextraction.EntityExtractionRemoteModel;
 import com.google.mlkit.nl.entityextraction.EntityExtractorOptions;
-import com.google.mlkit.nl.entityextraction.FlightNumberEntity;
-import com.google.mlkit.nl.entityextraction.IbanEntity;
-import com.google.mlkit.nl.entityextraction.IsbnEntity;
-import com.google.mlkit.nl.entityextraction.MoneyEntity;
-import com.google.mlkit.nl.entityextraction.PaymentCardEntity;
-import com.google.mlkit.nl.entityextraction.TrackingNumberEntity;
+import com.google.mlkit.vision.common.InputImage;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.DetectorRegistry;
+import com.google_mlkit_commons.DetectorScheduler;
 import com.google_mlkit_commons.GenericModelManager;
+import com.google_mlkit_commons.ImageDetector;
+import com.google_mlkit_commons.InputImageConverter;
+import com.google_mlkit_commons.ModelReadiness;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
-import java.util.TimeZone;
 
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
 public class EntityExtractor implements MethodChannel.MethodCallHandler {
     private static final String START = "nlp#startEntityExtractor";
+    private static final String START_BATCH = "nlp#startEntityExtractorBatch";
+    private static final String START_LONG_TEXT = "nlp#startEntityExtractorLongText";
+    private static final String START_IMAGE = "nlp#startEntityExtractorImage";
+    private static final String START_TEXT_RECOGNIZER = "vision#startTextRecognizer";
+    private static final int DEFAULT_WINDOW_LENGTH = 2000;
+    private static final int MIN_WINDOW_LENGTH = 100;
+    private static final int DEFAULT_OVERLAP = 200;
     private static final String CLOSE = "nlp#closeEntityExtractor";
     private static final String MANAGE = "nlp#manageEntityExtractionModels";
 
-    private final Map<String, com.google.mlkit.nl.entityextraction.EntityExtractor> instances = new HashMap<>();
+    //Extractors whose model is known to be downloaded, they can annotate without asking the model manager first.
+    private final ModelReadiness<com.google.mlkit.nl.entityextraction.EntityExtractor> readyExtractors = new ModelReadiness<>();
+    private final ClientLifecycleManager<com.google.mlkit.nl.entityextraction.EntityExtractor> instances =
+            new ClientLifecycleManager<>(extractor -> readyExtractors.remove(extractor));
     private final GenericModelManager genericModelManager = new GenericModelManager();
+    private final Context context;
+
+    public EntityExtractor(Context context) {
+        this.context = context;
+        genericModelManager.setOnModelDeletedListener(readyExtractors);
+    }
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
@@ -44,6 +59,15 @@ public class EntityExtractor implements MethodChannel.MethodCallHandler {
             case START:
                 extractEntities(call, result);
                 break;
+            case START_BATCH:
+                extractEntitiesBatch(call, result);
+                break;
+            case START_LONG_TEXT:
+                extractEntitiesLongText(call, result);
+                break;
+            case START_IMAGE:
+                extractEntitiesFromImage(call, result);
+                break;
             case CLOSE:
                 closeDetector(call);
                 result.success(null);
@@ -57,9 +81,174 @@ public class EntityExtractor implements MethodChannel.MethodCallHandler {
         }
     }
 
-    private void extractEntities(MethodCall call, final MethodChannel.Result result) {
+    private void extractEntities(MethodCall call, final MethodChannel.Result callResult) {
+        String text = call.argument("text");
+        final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor = getExtractor(call);
+        final MethodChannel.Result result = pin(call, entityExtractor, callResult);
+        EntityExtractionParams params = new ExtractionParameters(call.argument("parameters")).build(text);
+
+        ensureReady(entityExtractor)
+                .addOnSuccessListener(
+                        aVoid -> {
+                            // Model downloading succeeded, you can call the extraction API here.
+                            entityExtractor.annotate(params)
+                                    .addOnSuccessListener(entityAnnotations -> result.success(AnnotationSerializer.serialize(entityAnnotations)))
+                                    .addOnFailureListener(e -> {
+                                        //The model may have been removed outside of the plugin, check again on the next call.
+                                        readyExtractors.remove(entityExtractor);
+                                        result.error("BarcodeDetectorError", e.toString(), null);
+                                    });
+                        })
+                .addOnFailureListener(
+                        e -> {
+                            // Model could not be downloaded or other internal error.
+                            result.error("Error building extractor", "Model not downloaded", null);
+                        });
+    }
+
+    //Annotates a list of texts with the same parameters, every text is streamed back to dart as soon as it is annotated.
+    private void extractEntitiesBatch(MethodCall call, final MethodChannel.Result callResult) {
+        List<String> texts = call.argument("texts");
+        if (texts == null) {
+            callResult.error("EntityExtractorError", "Invalid texts", null);
+            return;
+        }
+        String streamId = call.argument("streamId");
+        final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor = getExtractor(call);
+        final MethodChannel.Result result = pin(call, entityExtractor, callResult);
+        ExtractionParameters parameters = new ExtractionParameters(call.argument("parameters"));
+
+        ensureReady(entityExtractor)
+                .addOnSuccessListener(aVoid -> new BatchEntityExtraction(entityExtractor, parameters, texts, streamId, result,
+                        () -> readyExtractors.remove(entityExtractor)).start())
+                .addOnFailureListener(e -> result.error("Error building extractor", "Model not downloaded", null));
+    }
+
+    //Annotates a long text in overlapping windows, the annotations of every window are streamed back to dart
+    //with offsets into the whole text.
+    private void extractEntitiesLongText(MethodCall call, final MethodChannel.Result callResult) {
         String text = call.argument("text");
+        if (text == null) {
+            callResult.error("EntityExtractorError", "Invalid text", null);
+            return;
+        }
+        String streamId = call.argument("streamId");
+        Integer windowLength = call.argument("windowLength");
+        Integer overlap = call.argument("overlap");
+        final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor = getExtractor(call);
+        final MethodChannel.Result result = pin(call, entityExtractor, callResult);
+        ExtractionParameters parameters = new ExtractionParameters(call.argument("parameters"));
+
+        ensureReady(entityExtractor)
+                .addOnSuccessListener(aVoid -> new ChunkedEntityExtraction(entityExtractor, parameters, text,
+                        windowLength != null ? Math.max(windowLength, MIN_WINDOW_LENGTH) : DEFAULT_WINDOW_LENGTH,
+                        overlap != null ? overlap : DEFAULT_OVERLAP,
+                        streamId, result, () -> readyExtractors.remove(entityExtractor)).start())
+                .addOnFailureListener(e -> result.error("Error building extractor", "Model not downloaded", null));
+    }
+
+    //Recognizes the text in an image and annotates it without sending the text tree to dart.
+    //The text is recognized by the detector registered by the text recognition plugin, it has to be part of the app.
+    //Lines are joined with line breaks and blocks with empty lines, every annotation comes back with the lines it was found in.
+    private void extractEntitiesFromImage(MethodCall call, final MethodChannel.Result callResult) {
+        Map<String, Object> imageData = call.argument("imageData");
+        Map<String, Object> recognizerArguments = call.argument("textRecognizer");
+        if (imageData == null || recognizerArguments == null) {
+            callResult.error("EntityExtractorError", "Invalid arguments", null);
+            return;
+        }
+        final ImageDetector textRecognizer = DetectorRegistry.get((String) recognizerArguments.get("detector"));
+        if (textRecognizer == null) {
+            callResult.error("EntityExtractorError",
+                    "Text recognizer not registered, add google_mlkit_text_recognition to the app", null);
+            return;
+        }
+        InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, callResult);
+        if (inputImage == null) return;
+
+        final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor = getExtractor(call);
+        final MethodChannel.Result result = pin(call, entityExtractor, callResult);
+        final ExtractionParameters parameters = new ExtractionParameters(call.argument("parameters"));
+        //Checking the model overlaps with text recognition.
+        final Task<Void> ready = ensureReady(entityExtractor);
+        final MethodCall recognizerCall = new MethodCall(START_TEXT_RECOGNIZER, recognizerArguments);
+
+        MethodChannel.Result recognized = new MethodChannel.Result() {
+            @Override
+            public void success(Object text) {
+                ready.addOnSuccessListener(aVoid -> annotateRecognizedText(entityExtractor, parameters, (Map<String, Object>) text, result))
+                        .addOnFailureListener(e -> result.error("Error building extractor", "Model not downloaded", null));
+            }
 
+            @Override
+            public void error(String errorCode, String errorMessage, Object errorDetails) {
+                result.error(errorCode, errorMessage, errorDetails);
+            }
+
+            @Override
+            public void notImplemented() {
+                result.notImplemented();
+            }
+        };
+        DetectorScheduler.getInstance().schedule(textRecognizer, recognizerCall, recognized,
+                scheduledResult -> textRecognizer.process(inputImage, recognizerCall, scheduledResult));
+    }
+
+    //The text comes serialized by the text recognition plugin: blocks with lines with text and rect.
+    private void annotateRecognizedText(final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor,
+                                        ExtractionParameters parameters,
+                                        Map<String, Object> text,
+                                        final MethodChannel.Result result) {
+        StringBuilder builder = new StringBuilder();
+        final List<Map<String, Object>> lines = new ArrayList<>();
+        final List<int[]> lineRanges = new ArrayList<>();
+        for (Map<String, Object> block : (List<Map<String, Object>>) text.get("blocks")) {
+            List<Map<String, Object>> blockLines = (List<Map<String, Object>>) block.get("lines");
+            for (int i = 0; i < blockLines.size(); i++) {
+                if (i > 0) builder.append('\n');
+                else if (builder.length() > 0) builder.append("\n\n");
+                int lineStart = builder.length();
+                builder.append((String) blockLines.get(i).get("text"));
+                lines.add(blockLines.get(i));
+                lineRanges.add(new int[]{lineStart, builder.length()});
+            }
+        }
+        final String joinedText = builder.toString();
+
+        entityExtractor.annotate(parameters.build(joinedText))
+                .addOnSuccessListener(entityAnnotations -> {
+                    List<Map<String, Object>> allAnnotations = new ArrayList<>(entityAnnotations.size());
+                    for (EntityAnnotation entityAnnotation : entityAnnotations) {
+                        Map<String, Object> annotation = AnnotationSerializer.serialize(entityAnnotation);
+                        List<Map<String, Object>> sourceLines = new ArrayList<>();
+                        for (int i = 0; i < lines.size(); i++) {
+                            int[] range = lineRanges.get(i);
+                            if (range[0] >= entityAnnotation.getEnd() || range[1] <= entityAnnotation.getStart()) continue;
+                            sourceLines.add(serializeLine(lines.get(i)));
+                        }
+                        annotation.put("lines", sourceLines);
+                        allAnnotations.add(annotation);
+                    }
+                    Map<String, Object> imageResult = new HashMap<>();
+                    imageResult.put("text", joinedText);
+                    imageResult.put("annotations", allAnnotations);
+                    result.success(imageResult);
+                })
+                .addOnFailureListener(e -> {
+                    readyExtractors.remove(entityExtractor);
+                    result.error("EntityExtractorError", e.toString(), null);
+                });
+    }
+
+    //Only the text and the bounding box of the line are sent back, not its elements.
+    private static Map<String, Object> serializeLine(Map<String, Object> line) {
+        Map<String, Object> lineData = new HashMap<>();
+        lineData.put("text", line.get("text"));
+        lineData.put("rect", line.get("rect"));
+        return lineData;
+    }
+
+    private com.google.mlkit.nl.entityextraction.EntityExtractor getExtractor(MethodCall call) {
         String id = call.argument("id");
         com.google.mlkit.nl.entityextraction.EntityExtractor extractor = instances.get(id);
         if (extractor == null) {
@@ -69,123 +258,49 @@ public class EntityExtractor implements MethodChannel.MethodCallHandler {
                             .build());
             instances.put(id, extractor);
         }
-        final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor = extractor;
-
-        Map<String, Object> parameters = call.argument("parameters");
-        Set<Integer> filters = null;
-        if (parameters.get("filters") != null) {
-            filters = new HashSet<>((List<Integer>) parameters.get("filters"));
-        }
+        return extractor;
+    }
 
-        Locale locale = null;
-        if (parameters.get("locale") != null) {
-            locale = new Locale.Builder().setLanguage((String) parameters.get("locale")).build();
-        }
+    //Pins the extractor until the request has been answered, batches and long texts keep it busy for a while.
+    private MethodChannel.Result pin(MethodCall call,
+                                     final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor,
+                                     final MethodChannel.Result result) {
+        final String id = call.argument("id");
+        instances.acquire(id, entityExtractor);
+        return new MethodChannel.Result() {
+            @Override
+            public void success(Object o) {
+                instances.release(id, entityExtractor);
+                result.success(o);
+            }
 
-        TimeZone timeZone = null;
-        if (parameters.get("timezone") != null) {
-            timeZone = TimeZone.getTimeZone((String) parameters.get("timezone"));
-        }
+            @Override
+            public void error(String errorCode, String errorMessage, Object errorDetails) {
+                instances.release(id, entityExtractor);
+                result.error(errorCode, errorMessage, errorDetails);
+            }
 
-        Long referenceTime = null;
-        if (parameters.get("time") != null) {
-            referenceTime = (Long) parameters.get("time");
-        }
-
-        EntityExtractionParams params = new EntityExtractionParams.Builder(text)
-                .setEntityTypesFilter(filters)
-                .setPreferredLocale(locale)
-                .setReferenceTimeZone(timeZone)
-                .setReferenceTime(referenceTime)
-                .build();
+            @Override
+            public void notImplemented() {
+                instances.release(id, entityExtractor);
+                result.notImplemented();
+            }
+        };
+    }
 
-        entityExtractor
-                .downloadModelIfNeeded()
-                .addOnSuccessListener(
-                        aVoid -> {
-                            // Model downloading succeeded, you can call the extraction API here.
-                            entityExtractor.annotate(params)
-                                    .addOnSuccessListener(entityAnnotations -> {
-                                        List<Map<String, Object>> allAnnotations = new ArrayList<>(entityAnnotations.size());
-
-                                        for (EntityAnnotation entityAnnotation : entityAnnotations) {
-                                            Map<String, Object> annotation = new HashMap<>();
-                                            List<Entity> entities = entityAnnotation.getEntities();
-                                            annotation.put("text", entityAnnotation.getAnnotatedText());
-                                            annotation.put("start", entityAnnotation.getStart());
-                                            annotation.put("end", entityAnnotation.getEnd());
-
-                                            List<Map<String, Object>> allEntities = new ArrayList<>();
-                                            for (Entity entity : entities) {
-                                                Map<String, Object> entityData = new HashMap<>();
-                                                entityData.put("type", entity.getType());
-                                                entityData.put("raw", entity.toString());
-                                                switch (entity.getType()) {
-                                                    case Entity.TYPE_ADDRESS:
-                                                    case Entity.TYPE_URL:
-                                                    case Entity.TYPE_PHONE:
-                                                    case Entity.TYPE_EMAIL:
-                                                        break;
-                                                    case Entity.TYPE_DATE_TIME:
-                                                        DateTimeEntity dateTimeEntity = entity.asDateTimeEntity();
-                                                        entityData.put("dateTimeGranularity", dateTimeEntity.getDateTimeGranularity() + 1);
-                                                        entityData.put("timestamp", dateTimeEntity.getTimestampMillis());
-                                                        break;
-                                                    case Entity.TYPE_FLIGHT_NUMBER:
-                                                        FlightNumberEntity flightNumberEntity = entity.asFlightNumberEntity();
-                                                        entityData.put("code", flightNumberEntity.getAirlineCode());
-                                                        entityData.put("number", flightNumberEntity.getFlightNumber());
-                                                        break;
-                                                    case Entity.TYPE_IBAN:
-                                                        IbanEntity ibanEntity = entity.asIbanEntity();
-                                                        entityData.put("iban", ibanEntity.getIban());
-                                                        entityData.put("code", ibanEntity.getIbanCountryCode());
-                                                        break;
-                                                    case Entity.TYPE_ISBN:
-                                                        IsbnEntity isbnEntity = entity.asIsbnEntity();
-                                                        entityData.put("isbn", isbnEntity.getIsbn());
-                                                        break;
-                                                    case Entity.TYPE_MONEY:
-                                                        MoneyEntity moneyEntity = entity.asMoneyEntity();
-                                                        entityData.put("fraction", moneyEntity.getFractionalPart());
-                                                        entityData.put("integer", moneyEntity.getIntegerPart());
-                                                        entityData.put("unnormalized", moneyEntity.getUnnormalizedCurrency());
-                                                        break;
-                                                    case Entity.TYPE_PAYMENT_CARD:
-                                                        PaymentCardEntity paymentCardEntity = entity.asPaymentCardEntity();
-                                                        entityData.put("network", paymentCardEntity.getPaymentCardNetwork());
-                                                        entityData.put("number", paymentCardEntity.getPaymentCardNumber());
-                                                        break;
-                                                    case Entity.TYPE_TRACKING_NUMBER:
-                                                        TrackingNumberEntity trackingNumberEntity = entity.asTrackingNumberEntity();
-                                                        entityData.put("carrier", trackingNumberEntity.getParcelCarrier());
-                                                        entityData.put("number", trackingNumberEntity.getParcelTrackingNumber());
-                                                        break;
-                                                }
-
-                                                allEntities.add(entityData);
-                                            }
-                                            annotation.put("entities", allEntities);
-                                            allAnnotations.add(annotation);
-                                        }
-
-                                        result.success(allAnnotations);
-                                    })
-                                    .addOnFailureListener(e -> result.error("BarcodeDetectorError", e.toString(), null));
-                        })
-                .addOnFailureListener(
-                        e -> {
-                            // Model could not be downloaded or other internal error.
-                            result.error("Error building extractor", "Model not downloaded", null);
-                        });
+    private Task<Void> ensureReady(final com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor) {
+        if (readyExtractors.isReady(entityExtractor)) return Tasks.forResult(null);
+        return entityExtractor.downloadModelIfNeeded()
+                .addOnSuccessListener(aVoid -> readyExtractors.setReady(entityExtractor));
     }
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.nl.entityextraction.EntityExtractor entityExtractor = instances.get(id);
-        if (entityExtractor == null) return;
-        entityExtractor.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 
     private void manageModel(MethodCall call, final MethodChannel.Result result) {
@@ -0,0 +1,53 @@
+package com.google_mlkit_entity_extraction;
+
+import com.google.mlkit.nl.entityextraction.EntityExtractionParams;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+//Annotation parameters parsed once from the method call, so a batch can build the params of every text from them.
+class ExtractionParameters {
+    private final Set<Integer> filters;
+    private final Locale locale;
+    private final TimeZone timeZone;
+    private final Long referenceTime;
+
+    ExtractionParameters(Map<String, Object> parameters) {
+        Set<Integer> filters = null;
+        if (parameters.get("filters") != null) {
+            filters = new HashSet<>((List<Integer>) parameters.get("filters"));
+        }
+        this.filters = filters;
+
+        Locale locale = null;
+        if (parameters.get("locale") != null) {
+            locale = new Locale.Builder().setLanguage((String) parameters.get("locale")).build();
+        }
+        this.locale = locale;
+
+        TimeZone timeZone = null;
+        if (parameters.get("timezone") != null) {
+            timeZone = TimeZone.getTimeZone((String) parameters.get("timezone"));
+        }
+        this.timeZone = timeZone;
+
+        Long referenceTime = null;
+        if (parameters.get("time") != null) {
+            referenceTime = (Long) parameters.get("time");
+        }
+        this.referenceTime = referenceTime;
+    }
+
+    EntityExtractionParams build(String text) {
+        return new EntityExtractionParams.Builder(text)
+                .setEntityTypesFilter(filters)
+                .setPreferredLocale(locale)
+                .setReferenceTimeZone(timeZone)
+                .setReferenceTime(referenceTime)
+                .build();
+    }
+}
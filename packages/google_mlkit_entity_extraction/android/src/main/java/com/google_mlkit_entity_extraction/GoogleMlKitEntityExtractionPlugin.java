@@ -7,16 +7,19 @@ import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitEntityExtractionPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private EntityExtractor entityExtractor;
     private static final String channelName = "google_mlkit_entity_extractor";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new EntityExtractor());
+        entityExtractor = new EntityExtractor(flutterPluginBinding.getApplicationContext());
+        channel.setMethodCallHandler(entityExtractor);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        entityExtractor.dispose();
     }
 }
@@ -0,0 +1,127 @@
+package com.google_mlkit_entity_extraction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.mlkit.nl.entityextraction.EntityAnnotation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+public class BatchEntityExtractionTest {
+    //Keeps the started annotations until the test completes them.
+    private static class FakeAnnotator implements BatchEntityExtraction.Annotator {
+        final List<String> texts = new ArrayList<>();
+        final List<OnSuccessListener<List<EntityAnnotation>>> successes = new ArrayList<>();
+        final List<OnFailureListener> failures = new ArrayList<>();
+        int inFlight;
+        int maxInFlight;
+
+        @Override
+        public void annotate(String text, OnSuccessListener<List<EntityAnnotation>> onSuccess, OnFailureListener onFailure) {
+            texts.add(text);
+            successes.add(onSuccess);
+            failures.add(onFailure);
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+        }
+
+        void succeed(int call) {
+            inFlight--;
+            successes.get(call).onSuccess(Collections.emptyList());
+        }
+
+        void fail(int call) {
+            inFlight--;
+            failures.get(call).onFailure(new Exception("failed"));
+        }
+    }
+
+    private static class Reply implements MethodChannel.Result {
+        Map<String, Object> summary;
+
+        @Override
+        public void success(Object result) {
+            summary = (Map<String, Object>) result;
+        }
+
+        @Override
+        public void error(String errorCode, String errorMessage, Object errorDetails) {
+            throw new AssertionError(errorCode);
+        }
+
+        @Override
+        public void notImplemented() {
+            throw new AssertionError();
+        }
+    }
+
+    @Test
+    public void annotatesRepeatedTextsOnce() {
+        FakeAnnotator annotator = new FakeAnnotator();
+        Reply reply = new Reply();
+        new BatchEntityExtraction(annotator, Arrays.asList("a", "b", "a", "c", "b", "a"), "stream", reply,
+                () -> {}).start();
+
+        assertEquals(Arrays.asList("a", "b", "c"), annotator.texts);
+        annotator.succeed(0);
+        annotator.succeed(1);
+        assertNull(reply.summary);
+        annotator.succeed(2);
+        assertEquals(6, reply.summary.get("count"));
+        assertEquals(3, reply.summary.get("annotated"));
+        assertEquals(0, reply.summary.get("failed"));
+    }
+
+    @Test
+    public void countsFailuresAtEveryPosition() {
+        FakeAnnotator annotator = new FakeAnnotator();
+        Reply reply = new Reply();
+        int[] failures = new int[1];
+        new BatchEntityExtraction(annotator, Arrays.asList("a", "b", "a"), "stream", reply,
+                () -> failures[0]++).start();
+
+        annotator.fail(0);
+        annotator.succeed(1);
+        assertEquals(1, failures[0]);
+        assertEquals(2, reply.summary.get("failed"));
+    }
+
+    @Test
+    public void keepsAtMostMaxInFlight() {
+        FakeAnnotator annotator = new FakeAnnotator();
+        Reply reply = new Reply();
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) texts.add("text " + i);
+        new BatchEntityExtraction(annotator, texts, "stream", reply, () -> {}).start();
+
+        assertEquals(BatchEntityExtraction.MAX_IN_FLIGHT, annotator.texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertTrue(annotator.inFlight <= BatchEntityExtraction.MAX_IN_FLIGHT);
+            annotator.succeed(i);
+        }
+        assertEquals(BatchEntityExtraction.MAX_IN_FLIGHT, annotator.maxInFlight);
+        assertEquals(texts, annotator.texts);
+        assertEquals(20, reply.summary.get("count"));
+    }
+
+    @Test
+    public void repliesRightAwayToEmptyBatch() {
+        FakeAnnotator annotator = new FakeAnnotator();
+        Reply reply = new Reply();
+        new BatchEntityExtraction(annotator, new ArrayList<>(), "stream", reply, () -> {}).start();
+
+        assertTrue(annotator.texts.isEmpty());
+        assertEquals(0, reply.summary.get("count"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.google_mlkit_entity_extraction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ChunkedEntityExtractionTest {
+    //Stands in for the extractor: every run of digits in the window text is an entity, also when the window cuts it.
+    private static final Pattern ENTITY = Pattern.compile("[0-9]+");
+
+    //Annotates every window like the extractor would and returns the reported offsets with how often each was reported.
+    private static Map<String, Integer> annotate(String text, List<ChunkedEntityExtraction.Window> windows) {
+        Map<String, Integer> reported = new HashMap<>();
+        for (int index = 0; index < windows.size(); index++) {
+            ChunkedEntityExtraction.Window window = windows.get(index);
+            Matcher matcher = ENTITY.matcher(text.substring(window.start, window.end));
+            while (matcher.find()) {
+                int[] offsets = ChunkedEntityExtraction.remap(windows, index, matcher.start(), matcher.end());
+                if (offsets == null) continue;
+                String key = offsets[0] + ":" + offsets[1];
+                Integer count = reported.get(key);
+                reported.put(key, count == null ? 1 : count + 1);
+            }
+        }
+        return reported;
+    }
+
+    private static Map<String, Integer> entities(String text) {
+        Map<String, Integer> entities = new HashMap<>();
+        Matcher matcher = ENTITY.matcher(text);
+        while (matcher.find()) entities.put(matcher.start() + ":" + matcher.end(), 1);
+        return entities;
+    }
+
+    private static String filler(int length, char c) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) builder.append(c);
+        return builder.toString();
+    }
+
+    @Test
+    public void reportsEveryEntityOnceWithOriginalOffsets() {
+        Random random = new Random(7);
+        for (int run = 0; run < 50; run++) {
+            StringBuilder builder = new StringBuilder();
+            while (builder.length() < 3000) {
+                builder.append(filler(1 + random.nextInt(30), 'a')).append(' ');
+                //Entities no longer than the overlap are seen in full by the window that reports them.
+                builder.append(filler(1 + random.nextInt(40), '5')).append(' ');
+            }
+            String text = builder.toString();
+            List<ChunkedEntityExtraction.Window> windows = ChunkedEntityExtraction.split(text, 200, 40);
+
+            assertEquals(entities(text), annotate(text, windows));
+        }
+    }
+
+    @Test
+    public void reportsEntityInOverlapOnce() {
+        //Windows [0, 100) and [80, 180), the entity lies entirely in both.
+        String text = filler(84, 'a') + "12345" + filler(91, 'a');
+        List<ChunkedEntityExtraction.Window> windows = ChunkedEntityExtraction.split(text, 100, 20);
+
+        assertEquals(80, windows.get(1).start);
+        Map<String, Integer> reported = annotate(text, windows);
+        assertEquals(1, reported.size());
+        assertEquals(1, (int) reported.get("84:89"));
+    }
+
+    @Test
+    public void leavesEntityCutAtWindowEndToNextWindow() {
+        //The first window only sees "12345" of the entity and owns its start, the second window sees all of it.
+        String text = filler(85, 'a') + "123456789012345" + filler(80, 'a');
+        List<ChunkedEntityExtraction.Window> windows = ChunkedEntityExtraction.split(text, 100, 20);
+
+        assertEquals(100, windows.get(0).end);
+        assertNull(ChunkedEntityExtraction.remap(windows, 0, 85, 100));
+        assertArrayEquals(new int[]{85, 100}, ChunkedEntityExtraction.remap(windows, 1, 5, 20));
+        assertEquals(entities(text), annotate(text, windows));
+    }
+
+    @Test
+    public void doesNotSplitSurrogatePairs() {
+        //Emoji are two chars each, the odd prefix puts every nominal window boundary inside a pair.
+        StringBuilder builder = new StringBuilder("a");
+        for (int i = 0; i < 500; i++) builder.append("\uD83D\uDE00");
+        String text = builder.toString();
+        List<ChunkedEntityExtraction.Window> windows = ChunkedEntityExtraction.split(text, 100, 20);
+
+        assertTrue(windows.size() > 1);
+        assertEquals(0, windows.get(0).start);
+        assertEquals(text.length(), windows.get(windows.size() - 1).end);
+        for (int i = 0; i < windows.size(); i++) {
+            ChunkedEntityExtraction.Window window = windows.get(i);
+            assertFalse(Character.isLowSurrogate(text.charAt(window.start)));
+            if (window.end < text.length()) assertFalse(Character.isLowSurrogate(text.charAt(window.end)));
+            if (i > 0) assertTrue(window.start < windows.get(i - 1).end);
+        }
+    }
+
+    @Test
+    public void usesOneWindowForShortText() {
+        String text = "Call 555 1234 tomorrow";
+        List<ChunkedEntityExtraction.Window> windows = ChunkedEntityExtraction.split(text, 100, 20);
+
+        assertEquals(1, windows.size());
+        assertEquals(0, windows.get(0).start);
+        assertEquals(text.length(), windows.get(0).end);
+        assertArrayEquals(new int[]{5, 8}, ChunkedEntityExtraction.remap(windows, 0, 5, 8));
+        assertEquals(entities(text), annotate(text, windows));
+    }
+
+    @Test
+    public void remapsOffsetsToOriginalText() {
+        String text = filler(300, 'a');
+        List<ChunkedEntityExtraction.Window> windows = ChunkedEntityExtraction.split(text, 100, 20);
+
+        assertEquals(160, windows.get(2).start);
+        assertArrayEquals(new int[]{175, 180}, ChunkedEntityExtraction.remap(windows, 2, 15, 20));
+        List<int[]> owned = new ArrayList<>();
+        for (int i = 0; i < windows.size(); i++) {
+            int[] offsets = ChunkedEntityExtraction.remap(windows, i, 15, 20);
+            if (offsets != null) owned.add(offsets);
+        }
+        assertEquals(windows.size(), owned.size());
+    }
+}
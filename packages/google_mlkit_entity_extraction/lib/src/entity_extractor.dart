@@ -1,3 +1,6 @@
+import 'dart:async';
+import 'dart:ui';
+
 import 'package:flutter/services.dart';
 import 'package:google_mlkit_commons/google_mlkit_commons.dart';
 
@@ -26,14 +29,8 @@ class EntityExtractor {
     String? referenceTimeZone,
     List<EntityType>? entityTypesFilter,
   }) async {
-    final parameters = <String, dynamic>{
-      'filters': entityTypesFilter != null && entityTypesFilter.isNotEmpty
-          ? entityTypesFilter.map((e) => e.index).toList()
-          : null,
-      'locale': preferredLocale,
-      'timezone': referenceTimeZone,
-      'time': referenceTime,
-    };
+    final parameters = _parameters(referenceTime, preferredLocale,
+        referenceTimeZone, entityTypesFilter);
 
     final result = await _channel.invokeMethod(
         'nlp#startEntityExtractor', <String, dynamic>{
@@ -50,11 +47,227 @@ class EntityExtractor {
     return annotations;
   }
 
+  /// Annotates each of the [texts] with the same parameters as [annotateText].
+  ///
+  /// The parameters are parsed once for the whole batch and a few texts are annotated concurrently,
+  /// a text repeated in [texts] is annotated once and emitted for each of its positions.
+  /// Each text is emitted as soon as it is annotated, so the order of the items is not guaranteed.
+  /// Only available on Android.
+  Stream<EntityExtractionBatchItem> annotateTexts(
+    List<String> texts, {
+    int? referenceTime,
+    String? preferredLocale,
+    String? referenceTimeZone,
+    List<EntityType>? entityTypesFilter,
+  }) {
+    final streamId = ResultStream.newStreamId();
+    final controller = StreamController<EntityExtractionBatchItem>();
+    final subscription = ResultStream.events(streamId).listen(
+        (event) => controller.add(EntityExtractionBatchItem.fromJson(event)));
+    controller.onCancel = subscription.cancel;
+
+    _channel.invokeMethod('nlp#startEntityExtractorBatch', <String, dynamic>{
+      'parameters': _parameters(referenceTime, preferredLocale,
+          referenceTimeZone, entityTypesFilter),
+      'id': id,
+      'texts': texts,
+      'language': language.name,
+      'streamId': streamId,
+    }).then((_) => controller.close(),
+        onError: (Object error, StackTrace stackTrace) {
+      controller.addError(error, stackTrace);
+      controller.close();
+    });
+
+    return controller.stream;
+  }
+
+  /// Annotates a long [text] in overlapping windows with the same parameters as [annotateText].
+  ///
+  /// The text is split into windows of [windowLength] characters which overlap by [overlap] characters,
+  /// a few windows are annotated in parallel and the annotations of each window are emitted as soon as it is done.
+  /// [EntityAnnotation.start] and [EntityAnnotation.end] refer to the whole [text].
+  /// Entities found in the overlap of two windows are emitted once, entities longer than half the overlap may be cut.
+  /// Only available on Android.
+  Stream<EntityAnnotation> annotateLongText(
+    String text, {
+    int windowLength = 2000,
+    int overlap = 200,
+    int? referenceTime,
+    String? preferredLocale,
+    String? referenceTimeZone,
+    List<EntityType>? entityTypesFilter,
+  }) {
+    final streamId = ResultStream.newStreamId();
+    final controller = StreamController<EntityAnnotation>();
+    final subscription = ResultStream.events(streamId).listen((event) {
+      for (final dynamic json in event['annotations']) {
+        controller.add(EntityAnnotation.fromJson(json));
+      }
+    });
+    controller.onCancel = subscription.cancel;
+
+    _channel.invokeMethod('nlp#startEntityExtractorLongText', <String, dynamic>{
+      'parameters': _parameters(referenceTime, preferredLocale,
+          referenceTimeZone, entityTypesFilter),
+      'id': id,
+      'text': text,
+      'language': language.name,
+      'streamId': streamId,
+      'windowLength': windowLength,
+      'overlap': overlap,
+    }).then((_) => controller.close(),
+        onError: (Object error, StackTrace stackTrace) {
+      controller.addError(error, stackTrace);
+      controller.close();
+    });
+
+    return controller.stream;
+  }
+
+  /// Recognizes the text in [inputImage] and annotates it with the same parameters as [annotateText].
+  ///
+  /// The text is recognized by [textRecognizer], the [PipelineStage] of a `TextRecognizer` of the
+  /// google_mlkit_text_recognition plugin, which has to be added to the app. Its script decides which script is read.
+  /// Both steps run natively, the recognized text tree never crosses the platform channel.
+  /// Lines of the recognized text are joined with line breaks and blocks with empty lines,
+  /// every annotation comes with the lines it was found in and their bounding boxes.
+  /// Only available on Android.
+  Future<ImageEntityAnnotations> annotateImage(
+    InputImage inputImage,
+    PipelineStage textRecognizer, {
+    int? referenceTime,
+    String? preferredLocale,
+    String? referenceTimeZone,
+    List<EntityType>? entityTypesFilter,
+  }) async {
+    final result = await _channel.invokeMapMethod<String, dynamic>(
+        'nlp#startEntityExtractorImage', <String, dynamic>{
+      'parameters': _parameters(referenceTime, preferredLocale,
+          referenceTimeZone, entityTypesFilter),
+      'id': id,
+      'imageData': inputImage.toJson(),
+      'textRecognizer': {
+        ...textRecognizer.arguments,
+        'detector': textRecognizer.detector
+      },
+      'language': language.name,
+    });
+    return ImageEntityAnnotations.fromJson(result!);
+  }
+
+  static Map<String, dynamic> _parameters(int? referenceTime,
+          String? preferredLocale, String? referenceTimeZone,
+          List<EntityType>? entityTypesFilter) =>
+      <String, dynamic>{
+        'filters': entityTypesFilter != null && entityTypesFilter.isNotEmpty
+            ? entityTypesFilter.map((e) => e.index).toList()
+            : null,
+        'locale': preferredLocale,
+        'timezone': referenceTimeZone,
+        'time': referenceTime,
+      };
+
   /// Closes the extractor and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod('nlp#closeEntityExtractor', {'id': id});
 }
 
+/// The result of annotating a single text of [EntityExtractor.annotateTexts].
+class EntityExtractionBatchItem {
+  /// The position of the text in the batch.
+  final int index;
+
+  /// The annotations of the text, null if it failed.
+  final List<EntityAnnotation>? annotations;
+
+  /// The error message if the text could not be annotated.
+  final String? errorMessage;
+
+  /// Time spent annotating the text.
+  final Duration processTime;
+
+  /// Constructor to create an instance of [EntityExtractionBatchItem].
+  EntityExtractionBatchItem(
+      {required this.index,
+      this.annotations,
+      this.errorMessage,
+      required this.processTime});
+
+  /// Returns an instance of [EntityExtractionBatchItem] from a given [json].
+  factory EntityExtractionBatchItem.fromJson(Map<dynamic, dynamic> json) =>
+      EntityExtractionBatchItem(
+          index: json['index'],
+          annotations: json['status'] == 'success'
+              ? (json['result'] as List)
+                  .map((annotation) => EntityAnnotation.fromJson(annotation))
+                  .toList()
+              : null,
+          errorMessage: json['message'],
+          processTime: Duration(milliseconds: json['processMillis']));
+
+  /// Whether the text was annotated successfully.
+  bool get isSuccess => annotations != null;
+}
+
+/// The result of [EntityExtractor.annotateImage].
+class ImageEntityAnnotations {
+  /// The text recognized in the image, [EntityAnnotation.start] and [EntityAnnotation.end] refer to it.
+  final String text;
+
+  /// The annotations found in [text].
+  final List<ImageEntityAnnotation> annotations;
+
+  /// Constructor to create an instance of [ImageEntityAnnotations].
+  ImageEntityAnnotations({required this.text, required this.annotations});
+
+  /// Returns an instance of [ImageEntityAnnotations] from a given [json].
+  factory ImageEntityAnnotations.fromJson(Map<dynamic, dynamic> json) =>
+      ImageEntityAnnotations(
+          text: json['text'],
+          annotations: (json['annotations'] as List)
+              .map((annotation) => ImageEntityAnnotation.fromJson(annotation))
+              .toList());
+}
+
+/// An [EntityAnnotation] found in an image, with the recognized lines it spans.
+class ImageEntityAnnotation {
+  /// The annotation.
+  final EntityAnnotation annotation;
+
+  /// The recognized lines the annotation was found in.
+  final List<SourceLine> lines;
+
+  /// Constructor to create an instance of [ImageEntityAnnotation].
+  ImageEntityAnnotation({required this.annotation, required this.lines});
+
+  /// Returns an instance of [ImageEntityAnnotation] from a given [json].
+  factory ImageEntityAnnotation.fromJson(Map<dynamic, dynamic> json) =>
+      ImageEntityAnnotation(
+          annotation: EntityAnnotation.fromJson(json),
+          lines: (json['lines'] as List)
+              .map((line) => SourceLine.fromJson(line))
+              .toList());
+}
+
+/// A line of text recognized in an image.
+class SourceLine {
+  /// The recognized text of the line.
+  final String text;
+
+  /// The bounding box of the line in the image, null if it is not known.
+  final Rect? boundingBox;
+
+  /// Constructor to create an instance of [SourceLine].
+  SourceLine({required this.text, this.boundingBox});
+
+  /// Returns an instance of [SourceLine] from a given [json].
+  factory SourceLine.fromJson(Map<dynamic, dynamic> json) => SourceLine(
+      text: json['text'],
+      boundingBox:
+          json['rect'] != null ? RectJson.fromJson(json['rect']) : null);
+}
+
 /// A subclass of [ModelManager] that manages [EntityExtractorRemoteModel].
 class EntityExtractorModelManager extends ModelManager {
   /// Constructor to create an instance of [EntityExtractorModelManager].
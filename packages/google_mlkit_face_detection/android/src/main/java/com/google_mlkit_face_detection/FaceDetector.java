@@ -12,7 +12,12 @@ import com.google.mlkit.vision.face.FaceContour;
 import com.google.mlkit.vision.face.FaceDetection;
 import com.google.mlkit.vision.face.FaceDetectorOptions;
 import com.google.mlkit.vision.face.FaceLandmark;
+import com.google_mlkit_commons.BatchImageProcessor;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.DetectorScheduler;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
+import com.google_mlkit_commons.RequestTracker;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -22,15 +27,18 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-class FaceDetector implements MethodChannel.MethodCallHandler {
+class FaceDetector implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startFaceDetector";
+    private static final String START_BATCH = "vision#startFaceDetectorBatch";
     private static final String CLOSE = "vision#closeFaceDetector";
 
     private final Context context;
-    private final Map<String, com.google.mlkit.vision.face.FaceDetector> instances = new HashMap<>();
+    private final BatchImageProcessor batchImageProcessor;
+    private final ClientLifecycleManager<com.google.mlkit.vision.face.FaceDetector> instances = new ClientLifecycleManager<>();
 
     public FaceDetector(Context context) {
         this.context = context;
+        this.batchImageProcessor = new BatchImageProcessor(context);
     }
 
     @Override
@@ -38,7 +46,14 @@ class FaceDetector implements MethodChannel.MethodCallHandler {
         String method = call.method;
         switch (method) {
             case START:
-                handleDetection(call, result);
+                MethodChannel.Result trackedResult = RequestTracker.track(call, result);
+                if (trackedResult != null) {
+                    DetectorScheduler.getInstance().schedule(this, call, trackedResult,
+                            scheduledResult -> handleDetection(call, scheduledResult));
+                }
+                break;
+            case START_BATCH:
+                batchImageProcessor.process(call, this, result);
                 break;
             case CLOSE:
                 closeDetector(call);
@@ -56,6 +71,11 @@ class FaceDetector implements MethodChannel.MethodCallHandler {
         if (inputImage == null)
             return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         com.google.mlkit.vision.face.FaceDetector detector = instances.get(id);
         if (detector == null) {
@@ -70,9 +90,13 @@ class FaceDetector implements MethodChannel.MethodCallHandler {
             instances.put(id, detector);
         }
 
-        detector.process(inputImage)
+        final com.google.mlkit.vision.face.FaceDetector client = detector;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
                 .addOnSuccessListener(
                         visionFaces -> {
+                            if (RequestTracker.skipIfCancelled(result)) return;
                             List<Map<String, Object>> faces = new ArrayList<>(visionFaces.size());
                             for (Face face : visionFaces) {
                                 Map<String, Object> faceData = new HashMap<>();
@@ -226,10 +250,11 @@ class FaceDetector implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.face.FaceDetector detector = instances.get(id);
-        if (detector == null)
-            return;
-        detector.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
+        batchImageProcessor.dispose();
     }
 }
@@ -19,16 +19,49 @@ class FaceDetector {
   FaceDetector({required this.options});
 
   /// Processes the given image for face detection.
-  Future<List<Face>> processImage(InputImage inputImage) async {
+  /// Pass a [requestId] to be able to cancel the request with [DetectionRequests.cancel].
+  Future<List<Face>> processImage(InputImage inputImage,
+      {String? requestId}) async {
     final result = await _channel.invokeListMethod<dynamic>(
         'vision#startFaceDetector', <String, dynamic>{
       'options': options.toJson(),
       'id': id,
       'imageData': inputImage.toJson(),
+      if (requestId != null) 'requestId': requestId,
     });
 
+    return _parseFaces(result!);
+  }
+
+  /// Processes a batch of [images] for face detection.
+  /// Results are streamed back as soon as each image is processed, at most [parallelism] images are decoded at once.
+  /// A [priority] overrides the scheduling priority of the detector for this batch.
+  /// Only available on Android.
+  Stream<BatchItemResult<List<Face>>> processImages(List<InputImage> images,
+          {int parallelism = 2, DetectorPriority? priority}) =>
+      BatchImageProcessing.process(
+          channel: _channel,
+          method: 'vision#startFaceDetectorBatch',
+          arguments: {'options': options.toJson(), 'id': id},
+          images: images,
+          parse: (json) => _parseFaces(json),
+          parallelism: parallelism,
+          priority: priority);
+
+  /// Returns a [PipelineStage] to run this detector as part of a [DetectionPipeline].
+  PipelineStage<List<Face>> get pipelineStage => PipelineStage(
+      detector: 'face',
+      arguments: {'options': options.toJson(), 'id': id},
+      parse: (json) => _parseFaces(json));
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
+  static List<Face> _parseFaces(List<dynamic> result) {
     final List<Face> faces = <Face>[];
-    for (final dynamic json in result!) {
+    for (final dynamic json in result) {
       faces.add(Face.fromJson(json));
     }
 
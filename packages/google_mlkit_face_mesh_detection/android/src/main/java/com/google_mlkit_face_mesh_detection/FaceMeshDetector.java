@@ -11,6 +11,8 @@ import com.google.mlkit.vision.facemesh.FaceMesh;
 import com.google.mlkit.vision.facemesh.FaceMeshDetection;
 import com.google.mlkit.vision.facemesh.FaceMeshDetectorOptions;
 import com.google.mlkit.vision.facemesh.FaceMeshPoint;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
 
 import java.util.ArrayList;
@@ -21,12 +23,12 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-class FaceMeshDetector implements MethodChannel.MethodCallHandler {
+class FaceMeshDetector implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startFaceMeshDetector";
     private static final String CLOSE = "vision#closeFaceMeshDetector";
 
     private final Context context;
-    private final Map<String, com.google.mlkit.vision.facemesh.FaceMeshDetector> instances = new HashMap<>();
+    private final ClientLifecycleManager<com.google.mlkit.vision.facemesh.FaceMeshDetector> instances = new ClientLifecycleManager<>();
 
     public FaceMeshDetector(Context context) {
         this.context = context;
@@ -54,6 +56,11 @@ class FaceMeshDetector implements MethodChannel.MethodCallHandler {
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         com.google.mlkit.vision.facemesh.FaceMeshDetector detector = instances.get(id);
         if (detector == null) {
@@ -80,7 +87,10 @@ class FaceMeshDetector implements MethodChannel.MethodCallHandler {
             instances.put(id, detector);
         }
 
-        detector.process(inputImage)
+        final com.google.mlkit.vision.facemesh.FaceMeshDetector client = detector;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
                 .addOnSuccessListener(
                         visionMeshes -> {
                             List<Map<String, Object>> faceMeshes = new ArrayList<>(visionMeshes.size());
@@ -151,9 +161,10 @@ class FaceMeshDetector implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.facemesh.FaceMeshDetector detector = instances.get(id);
-        if (detector == null) return;
-        detector.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 }
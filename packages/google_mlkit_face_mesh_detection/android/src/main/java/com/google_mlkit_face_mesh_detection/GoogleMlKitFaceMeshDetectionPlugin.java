@@ -2,21 +2,29 @@ package com.google_mlkit_face_mesh_detection;
 
 import androidx.annotation.NonNull;
 
+import com.google_mlkit_commons.DetectorRegistry;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitFaceMeshDetectionPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private FaceMeshDetector detector;
+    private static final String detectorName = "face_mesh";
     private static final String channelName = "google_mlkit_face_mesh_detector";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new FaceMeshDetector(flutterPluginBinding.getApplicationContext()));
+        detector = new FaceMeshDetector(flutterPluginBinding.getApplicationContext());
+        channel.setMethodCallHandler(detector);
+        DetectorRegistry.register(detectorName, detector);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        DetectorRegistry.unregister(detectorName);
+        detector.dispose();
     }
 }
@@ -34,6 +34,18 @@ class FaceMeshDetector {
     return meshes;
   }
 
+  /// Returns a [PipelineStage] to run this detector as part of a [DetectionPipeline].
+  PipelineStage<List<FaceMesh>> get pipelineStage => PipelineStage(
+      detector: 'face_mesh',
+      arguments: {'id': id, 'option': option.index},
+      parse: (json) =>
+          [for (final dynamic mesh in json) FaceMesh.fromJson(mesh)]);
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
   /// Closes the detector and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod<void>('vision#closeFaceMeshDetector', {'id': id});
@@ -2,21 +2,29 @@ package com.google_mlkit_image_labeling;
 
 import androidx.annotation.NonNull;
 
+import com.google_mlkit_commons.DetectorRegistry;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitImageLabelingPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private ImageLabelDetector detector;
+    private static final String detectorName = "label";
     private static final String channelName = "google_mlkit_image_labeler";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new ImageLabelDetector(flutterPluginBinding.getApplicationContext()));
+        detector = new ImageLabelDetector(flutterPluginBinding.getApplicationContext());
+        channel.setMethodCallHandler(detector);
+        DetectorRegistry.register(detectorName, detector);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        DetectorRegistry.unregister(detectorName);
+        detector.dispose();
     }
 }
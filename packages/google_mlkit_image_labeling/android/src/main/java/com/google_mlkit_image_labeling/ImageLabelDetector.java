@@ -13,8 +13,13 @@ import com.google.mlkit.vision.label.ImageLabeler;
 import com.google.mlkit.vision.label.ImageLabeling;
 import com.google.mlkit.vision.label.custom.CustomImageLabelerOptions;
 import com.google.mlkit.vision.label.defaults.ImageLabelerOptions;
+import com.google_mlkit_commons.BatchImageProcessor;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.DetectorScheduler;
 import com.google_mlkit_commons.GenericModelManager;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
+import com.google_mlkit_commons.RequestTracker;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,17 +29,20 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-public class ImageLabelDetector implements MethodChannel.MethodCallHandler {
+public class ImageLabelDetector implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startImageLabelDetector";
+    private static final String START_BATCH = "vision#startImageLabelDetectorBatch";
     private static final String CLOSE = "vision#closeImageLabelDetector";
     private static final String MANAGE = "vision#manageFirebaseModels";
 
     private final Context context;
-    private final Map<String, ImageLabeler> instances = new HashMap<>();
+    private final BatchImageProcessor batchImageProcessor;
+    private final ClientLifecycleManager<ImageLabeler> instances = new ClientLifecycleManager<>();
     private final GenericModelManager genericModelManager = new GenericModelManager();
 
     public ImageLabelDetector(Context context) {
         this.context = context;
+        this.batchImageProcessor = new BatchImageProcessor(context);
     }
 
     @Override
@@ -42,7 +50,14 @@ public class ImageLabelDetector implements MethodChannel.MethodCallHandler {
         String method = call.method;
         switch (method) {
             case START:
-                handleDetection(call, result);
+                MethodChannel.Result trackedResult = RequestTracker.track(call, result);
+                if (trackedResult != null) {
+                    DetectorScheduler.getInstance().schedule(this, call, trackedResult,
+                            scheduledResult -> handleDetection(call, scheduledResult));
+                }
+                break;
+            case START_BATCH:
+                batchImageProcessor.process(call, this, result);
                 break;
             case CLOSE:
                 closeDetector(call);
@@ -62,6 +77,11 @@ public class ImageLabelDetector implements MethodChannel.MethodCallHandler {
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         ImageLabeler imageLabeler = instances.get(id);
         if (imageLabeler == null) {
@@ -93,8 +113,12 @@ public class ImageLabelDetector implements MethodChannel.MethodCallHandler {
             instances.put(id, imageLabeler);
         }
 
-        imageLabeler.process(inputImage)
+        final ImageLabeler client = imageLabeler;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
                 .addOnSuccessListener(imageLabels -> {
+                    if (RequestTracker.skipIfCancelled(result)) return;
                     List<Map<String, Object>> labels = new ArrayList<>(imageLabels.size());
                     for (ImageLabel label : imageLabels) {
                         Map<String, Object> labelData = new HashMap<>();
@@ -151,10 +175,12 @@ public class ImageLabelDetector implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        ImageLabeler imageLabeler = instances.get(id);
-        if (imageLabeler == null) return;
-        imageLabeler.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
+        batchImageProcessor.dispose();
     }
 
     private void manageModel(MethodCall call, final MethodChannel.Result result) {
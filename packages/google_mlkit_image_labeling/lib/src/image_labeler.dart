@@ -16,13 +16,47 @@ class ImageLabeler {
   ImageLabeler({required this.options});
 
   /// Processes the given image for image labeling, it returns a List of [ImageLabel].
-  Future<List<ImageLabel>> processImage(InputImage inputImage) async {
+  /// Pass a [requestId] to be able to cancel the request with [DetectionRequests.cancel].
+  Future<List<ImageLabel>> processImage(InputImage inputImage,
+      {String? requestId}) async {
     final result = await _channel.invokeMethod(
         'vision#startImageLabelDetector', <String, dynamic>{
       'options': options.toJson(),
       'id': id,
-      'imageData': inputImage.toJson()
+      'imageData': inputImage.toJson(),
+      if (requestId != null) 'requestId': requestId,
     });
+    return _parseLabels(result);
+  }
+
+  /// Processes a batch of [images] for image labeling.
+  /// Results are streamed back as soon as each image is processed, at most [parallelism] images are decoded at once.
+  /// A [priority] overrides the scheduling priority of the detector for this batch.
+  /// Only available on Android.
+  Stream<BatchItemResult<List<ImageLabel>>> processImages(
+          List<InputImage> images,
+          {int parallelism = 2, DetectorPriority? priority}) =>
+      BatchImageProcessing.process(
+          channel: _channel,
+          method: 'vision#startImageLabelDetectorBatch',
+          arguments: {'options': options.toJson(), 'id': id},
+          images: images,
+          parse: (json) => _parseLabels(json),
+          parallelism: parallelism,
+          priority: priority);
+
+  /// Returns a [PipelineStage] to run this labeler as part of a [DetectionPipeline].
+  PipelineStage<List<ImageLabel>> get pipelineStage => PipelineStage(
+      detector: 'label',
+      arguments: {'options': options.toJson(), 'id': id},
+      parse: (json) => _parseLabels(json));
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
+  static List<ImageLabel> _parseLabels(dynamic result) {
     final imageLabels = <ImageLabel>[];
 
     for (final dynamic json in result) {
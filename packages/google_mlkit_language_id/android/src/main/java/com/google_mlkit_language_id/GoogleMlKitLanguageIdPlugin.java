@@ -7,16 +7,19 @@ import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitLanguageIdPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private LanguageDetector languageDetector;
     private static final String channelName = "google_mlkit_language_identifier";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new LanguageDetector());
+        languageDetector = new LanguageDetector();
+        channel.setMethodCallHandler(languageDetector);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        languageDetector.dispose();
     }
 }
@@ -2,13 +2,18 @@ package com.google_mlkit_language_id;
 
 import androidx.annotation.NonNull;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.mlkit.nl.languageid.IdentifiedLanguage;
 import com.google.mlkit.nl.languageid.LanguageIdentification;
 import com.google.mlkit.nl.languageid.LanguageIdentificationOptions;
 import com.google.mlkit.nl.languageid.LanguageIdentifier;
+import com.google_mlkit_commons.ClientLifecycleManager;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,9 +22,19 @@ import io.flutter.plugin.common.MethodChannel;
 
 public class LanguageDetector implements MethodChannel.MethodCallHandler {
     private static final String START = "nlp#startLanguageIdentifier";
+    private static final String START_BATCH = "nlp#startLanguageIdentifierBatch";
     private static final String CLOSE = "nlp#closeLanguageIdentifier";
+    private static final String UNDETERMINED_LANGUAGE = "und";
+    private static final int MAX_CACHE_ENTRIES = 256;
 
-    private final Map<String, LanguageIdentifier> instances = new HashMap<>();
+    private final ClientLifecycleManager<LanguageIdentifier> instances = new ClientLifecycleManager<>();
+    //Identified languages keyed by (confidence, possibleLanguages, text), chat apps identify the same short texts over and over.
+    private final LinkedHashMap<String, Object> cache = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > MAX_CACHE_ENTRIES;
+        }
+    };
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
@@ -28,6 +43,9 @@ public class LanguageDetector implements MethodChannel.MethodCallHandler {
             case START:
                 identifyLanguages(call, result);
                 break;
+            case START_BATCH:
+                identifyLanguagesBatch(call, result);
+                break;
             case CLOSE:
                 closeDetector(call);
                 result.success(null);
@@ -39,6 +57,106 @@ public class LanguageDetector implements MethodChannel.MethodCallHandler {
     }
 
     private void identifyLanguages(MethodCall call, final MethodChannel.Result result) {
+        LanguageIdentifier languageIdentifier = getLanguageIdentifier(call);
+        double confidence = (double) call.argument("confidence");
+        boolean possibleLanguages = (boolean) call.argument("possibleLanguages");
+        String text = (String) call.argument("text");
+
+        Object cached = getCachedOrUndetermined(text, confidence, possibleLanguages);
+        if (cached != null) {
+            result.success(cached);
+            return;
+        }
+        String id = call.argument("id");
+        instances.acquire(id, languageIdentifier);
+        identify(text, confidence, possibleLanguages, languageIdentifier)
+                .addOnCompleteListener(task -> instances.release(id, languageIdentifier))
+                .addOnSuccessListener(result::success)
+                .addOnFailureListener(e -> {
+                    if (!possibleLanguages) {
+                        result.error("Language Identification Error", e.toString(), null);
+                    } else {
+                        result.error("Error identifying possible languages", e.toString(), null);
+                    }
+                });
+    }
+
+    //Identifies the languages of a list of texts, replies with the results in input order.
+    //Duplicates are identified once, cached texts and texts without letters do not reach the model.
+    private void identifyLanguagesBatch(MethodCall call, final MethodChannel.Result result) {
+        LanguageIdentifier languageIdentifier = getLanguageIdentifier(call);
+        double confidence = (double) call.argument("confidence");
+        boolean possibleLanguages = (boolean) call.argument("possibleLanguages");
+        final List<String> texts = call.argument("texts");
+
+        String id = call.argument("id");
+        instances.acquire(id, languageIdentifier);
+
+        final Object[] results = new Object[texts.size()];
+        final Map<String, Task<Object>> identifications = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            Object cached = getCachedOrUndetermined(text, confidence, possibleLanguages);
+            if (cached != null) {
+                results[i] = cached;
+            } else if (!identifications.containsKey(text)) {
+                identifications.put(text, identify(text, confidence, possibleLanguages, languageIdentifier));
+            }
+        }
+
+        Tasks.whenAllComplete(identifications.values()).addOnCompleteListener(task -> {
+            instances.release(id, languageIdentifier);
+            for (int i = 0; i < texts.size(); i++) {
+                Task<Object> identification = identifications.get(texts.get(i));
+                if (identification == null) continue;
+                if (!identification.isSuccessful()) {
+                    result.error("Language Identification Error", String.valueOf(identification.getException()), null);
+                    return;
+                }
+                results[i] = identification.getResult();
+            }
+            List<Object> resultList = new ArrayList<>(results.length);
+            Collections.addAll(resultList, results);
+            result.success(resultList);
+        });
+    }
+
+    //Returns the cached result for the text, or the undetermined result if the text has no letters to identify.
+    private Object getCachedOrUndetermined(String text, double confidence, boolean possibleLanguages) {
+        Object cached = cache.get(cacheKey(text, confidence, possibleLanguages));
+        if (cached != null) return cached;
+        if (hasLetters(text)) return null;
+        if (!possibleLanguages) return UNDETERMINED_LANGUAGE;
+        Map<String, Object> languageData = new HashMap<>();
+        languageData.put("confidence", 1.0f);
+        languageData.put("language", UNDETERMINED_LANGUAGE);
+        return Collections.singletonList(languageData);
+    }
+
+    private Task<Object> identify(String text,
+                                  double confidence,
+                                  boolean possibleLanguages,
+                                  LanguageIdentifier languageIdentifier) {
+        Task<Object> identification;
+        if (!possibleLanguages) {
+            identification = languageIdentifier.identifyLanguage(text).onSuccessTask(languageTag -> Tasks.<Object>forResult(languageTag));
+        } else {
+            identification = languageIdentifier.identifyPossibleLanguages(text).onSuccessTask(identifiedLanguages -> {
+                List<Map<String, Object>> languageList = new ArrayList<>();
+                for (IdentifiedLanguage language : identifiedLanguages) {
+                    Map<String, Object> languageData = new HashMap<>();
+                    languageData.put("confidence", language.getConfidence());
+                    languageData.put("language", language.getLanguageTag());
+                    languageList.add(languageData);
+                }
+                return Tasks.<Object>forResult(languageList);
+            });
+        }
+        return identification.addOnSuccessListener(identified ->
+                cache.put(cacheKey(text, confidence, possibleLanguages), identified));
+    }
+
+    private LanguageIdentifier getLanguageIdentifier(MethodCall call) {
         String id = call.argument("id");
         LanguageIdentifier languageIdentifier = instances.get(id);
         if (languageIdentifier == null) {
@@ -49,42 +167,28 @@ public class LanguageDetector implements MethodChannel.MethodCallHandler {
                             .build());
             instances.put(id, languageIdentifier);
         }
-
-        boolean possibleLanguages = (boolean) call.argument("possibleLanguages");
-        String text = (String) call.argument("text");
-        if (!possibleLanguages) {
-            identifyLanguage(text, languageIdentifier, result);
-        } else {
-            identifyPossibleLanguages(text, languageIdentifier, result);
-        }
+        return languageIdentifier;
     }
 
-    private void identifyLanguage(String text, LanguageIdentifier languageIdentifier, final MethodChannel.Result result) {
-        languageIdentifier.identifyLanguage(text)
-                .addOnSuccessListener(result::success)
-                .addOnFailureListener(e -> result.error("Language Identification Error", e.toString(), null));
+    private static boolean hasLetters(String text) {
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetter(codePoint)) return true;
+            i += Character.charCount(codePoint);
+        }
+        return false;
     }
 
-    private void identifyPossibleLanguages(String text, LanguageIdentifier languageIdentifier, final MethodChannel.Result result) {
-        languageIdentifier.identifyPossibleLanguages(text)
-                .addOnSuccessListener(identifiedLanguages -> {
-                    List<Map<String, Object>> languageList = new ArrayList<>();
-                    for (IdentifiedLanguage language : identifiedLanguages) {
-                        Map<String, Object> languageData = new HashMap<>();
-                        languageData.put("confidence", language.getConfidence());
-                        languageData.put("language", language.getLanguageTag());
-                        languageList.add(languageData);
-                    }
-                    result.success(languageList);
-                })
-                .addOnFailureListener(e -> result.error("Error identifying possible languages", e.toString(), null));
+    private static String cacheKey(String text, double confidence, boolean possibleLanguages) {
+        return confidence + (possibleLanguages ? "|p|" : "|s|") + text;
     }
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        LanguageIdentifier languageIdentifier = instances.get(id);
-        if (languageIdentifier == null) return;
-        languageIdentifier.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 }
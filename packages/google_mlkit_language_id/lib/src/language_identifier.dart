@@ -55,6 +55,43 @@ class LanguageIdentifier {
     return languages;
   }
 
+  /// Identifies the language of each of the [texts], the results are returned in the same order as [texts].
+  ///
+  /// Results are cached natively, repeated texts and texts without letters do not run the model.
+  /// Only available on Android.
+  Future<List<String>> identifyLanguageBatch(List<String> texts) async {
+    final result = await _channel
+        .invokeListMethod<String>('nlp#startLanguageIdentifierBatch', <String, dynamic>{
+      'texts': texts,
+      'possibleLanguages': false,
+      'confidence': confidenceThreshold,
+      'id': id,
+    });
+
+    return result!;
+  }
+
+  /// Identifies the possible languages of each of the [texts], the results are returned in the same order as [texts].
+  ///
+  /// Results are cached natively, repeated texts and texts without letters do not run the model.
+  /// Only available on Android.
+  Future<List<List<IdentifiedLanguage>>> identifyPossibleLanguagesBatch(
+      List<String> texts) async {
+    final result = await _channel
+        .invokeListMethod<dynamic>('nlp#startLanguageIdentifierBatch', <String, dynamic>{
+      'texts': texts,
+      'possibleLanguages': true,
+      'confidence': confidenceThreshold,
+      'id': id,
+    });
+
+    return result!
+        .map((languages) => (languages as List)
+            .map((json) => IdentifiedLanguage.fromJson(json))
+            .toList())
+        .toList();
+  }
+
   /// Closes the identifier and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod('nlp#closeLanguageIdentifier', {'id': id});
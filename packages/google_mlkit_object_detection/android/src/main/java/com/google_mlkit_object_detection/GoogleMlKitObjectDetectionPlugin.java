@@ -2,21 +2,29 @@ package com.google_mlkit_object_detection;
 
 import androidx.annotation.NonNull;
 
+import com.google_mlkit_commons.DetectorRegistry;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitObjectDetectionPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private ObjectDetector detector;
+    private static final String detectorName = "object";
     private static final String channelName = "google_mlkit_object_detector";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new ObjectDetector(flutterPluginBinding.getApplicationContext()));
+        detector = new ObjectDetector(flutterPluginBinding.getApplicationContext());
+        channel.setMethodCallHandler(detector);
+        DetectorRegistry.register(detectorName, detector);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        DetectorRegistry.unregister(detectorName);
+        detector.dispose();
     }
 }
@@ -13,7 +13,9 @@ import com.google.mlkit.vision.objects.DetectedObject;
 import com.google.mlkit.vision.objects.ObjectDetection;
 import com.google.mlkit.vision.objects.custom.CustomObjectDetectorOptions;
 import com.google.mlkit.vision.objects.defaults.ObjectDetectorOptions;
+import com.google_mlkit_commons.ClientLifecycleManager;
 import com.google_mlkit_commons.GenericModelManager;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
 
 import java.util.ArrayList;
@@ -24,13 +26,13 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-public class ObjectDetector implements MethodChannel.MethodCallHandler {
+public class ObjectDetector implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startObjectDetector";
     private static final String CLOSE = "vision#closeObjectDetector";
     private static final String MANAGE = "vision#manageFirebaseModels";
 
     private final Context context;
-    private final Map<String, com.google.mlkit.vision.objects.ObjectDetector> instances = new HashMap<>();
+    private final ClientLifecycleManager<com.google.mlkit.vision.objects.ObjectDetector> instances = new ClientLifecycleManager<>();
     private final GenericModelManager genericModelManager = new GenericModelManager();
 
     public ObjectDetector(Context context) {
@@ -62,6 +64,11 @@ public class ObjectDetector implements MethodChannel.MethodCallHandler {
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         com.google.mlkit.vision.objects.ObjectDetector objectDetector = instances.get(id);
         if (objectDetector == null) {
@@ -93,7 +100,11 @@ public class ObjectDetector implements MethodChannel.MethodCallHandler {
             instances.put(id, objectDetector);
         }
 
-        objectDetector.process(inputImage).addOnSuccessListener(detectedObjects -> {
+        final com.google.mlkit.vision.objects.ObjectDetector client = objectDetector;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
+                .addOnSuccessListener(detectedObjects -> {
             List<Map<String, Object>> objects = new ArrayList<>();
             for (DetectedObject detectedObject : detectedObjects) {
                 Map<String, Object> objectMap = new HashMap<>();
@@ -209,10 +220,11 @@ public class ObjectDetector implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.objects.ObjectDetector objectDetector = instances.get(id);
-        if (objectDetector == null) return;
-        objectDetector.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 
     private void manageModel(MethodCall call, final MethodChannel.Result result) {
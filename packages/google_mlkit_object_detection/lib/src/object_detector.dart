@@ -32,6 +32,19 @@ class ObjectDetector {
     return objects;
   }
 
+  /// Returns a [PipelineStage] to run this detector as part of a [DetectionPipeline].
+  PipelineStage<List<DetectedObject>> get pipelineStage => PipelineStage(
+      detector: 'object',
+      arguments: {'options': options.toJson(), 'id': id},
+      parse: (json) => [
+            for (final dynamic object in json) DetectedObject.fromJson(object)
+          ]);
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
   /// Closes the detector and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod<void>('vision#closeObjectDetector', {'id': id});
@@ -9,7 +9,11 @@ import com.google.mlkit.vision.pose.PoseDetection;
 import com.google.mlkit.vision.pose.PoseLandmark;
 import com.google.mlkit.vision.pose.accurate.AccuratePoseDetectorOptions;
 import com.google.mlkit.vision.pose.defaults.PoseDetectorOptions;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.DetectorScheduler;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
+import com.google_mlkit_commons.RequestTracker;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,12 +23,12 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-public class PoseDetector implements MethodChannel.MethodCallHandler {
+public class PoseDetector implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startPoseDetector";
     private static final String CLOSE = "vision#closePoseDetector";
 
     private final Context context;
-    private final Map<String, com.google.mlkit.vision.pose.PoseDetector> instances = new HashMap<>();
+    private final ClientLifecycleManager<com.google.mlkit.vision.pose.PoseDetector> instances = new ClientLifecycleManager<>();
 
     public PoseDetector(Context context) {
         this.context = context;
@@ -35,7 +39,11 @@ public class PoseDetector implements MethodChannel.MethodCallHandler {
         String method = call.method;
         switch (method) {
             case START:
-                handleDetection(call, result);
+                MethodChannel.Result trackedResult = RequestTracker.track(call, result);
+                if (trackedResult != null) {
+                    DetectorScheduler.getInstance().schedule(this, call, trackedResult,
+                            scheduledResult -> handleDetection(call, scheduledResult));
+                }
                 break;
             case CLOSE:
                 closeDetector(call);
@@ -52,6 +60,11 @@ public class PoseDetector implements MethodChannel.MethodCallHandler {
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         com.google.mlkit.vision.pose.PoseDetector poseDetector = instances.get(id);
         if (poseDetector == null) {
@@ -82,9 +95,13 @@ public class PoseDetector implements MethodChannel.MethodCallHandler {
             instances.put(id, poseDetector);
         }
 
-        poseDetector.process(inputImage)
+        final com.google.mlkit.vision.pose.PoseDetector client = poseDetector;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
                 .addOnSuccessListener(
                         pose -> {
+                            if (RequestTracker.skipIfCancelled(result)) return;
                             List<List<Map<String, Object>>> array = new ArrayList<>();
                             if (!pose.getAllPoseLandmarks().isEmpty()) {
                                 List<Map<String, Object>> landmarks = new ArrayList<>();
@@ -107,9 +124,10 @@ public class PoseDetector implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.pose.PoseDetector poseDetector = instances.get(id);
-        if (poseDetector == null) return;
-        poseDetector.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 }
@@ -17,14 +17,32 @@ class PoseDetector {
 
   /// Processes the given [InputImage] for pose detection.
   /// It returns a list of [Pose].
-  Future<List<Pose>> processImage(InputImage inputImage) async {
+  /// Pass a [requestId] to be able to cancel the request with [DetectionRequests.cancel].
+  Future<List<Pose>> processImage(InputImage inputImage,
+      {String? requestId}) async {
     final result = await _channel.invokeMethod(
         'vision#startPoseDetector', <String, dynamic>{
       'options': options.toJson(),
       'id': id,
-      'imageData': inputImage.toJson()
+      'imageData': inputImage.toJson(),
+      if (requestId != null) 'requestId': requestId,
     });
 
+    return _parsePoses(result);
+  }
+
+  /// Returns a [PipelineStage] to run this detector as part of a [DetectionPipeline].
+  PipelineStage<List<Pose>> get pipelineStage => PipelineStage(
+      detector: 'pose',
+      arguments: {'options': options.toJson(), 'id': id},
+      parse: (json) => _parsePoses(json));
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
+  static List<Pose> _parsePoses(dynamic result) {
     final List<Pose> poses = [];
     for (final pose in result) {
       final Map<PoseLandmarkType, PoseLandmark> landmarks = {};
@@ -2,21 +2,29 @@ package com.google_mlkit_selfie_segmentation;
 
 import androidx.annotation.NonNull;
 
+import com.google_mlkit_commons.DetectorRegistry;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitSelfieSegmentationPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private SelfieSegmenter detector;
+    private static final String detectorName = "selfie_segmentation";
     private static final String channelName = "google_mlkit_selfie_segmenter";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new SelfieSegmenter(flutterPluginBinding.getApplicationContext()));
+        detector = new SelfieSegmenter(flutterPluginBinding.getApplicationContext());
+        channel.setMethodCallHandler(detector);
+        DetectorRegistry.register(detectorName, detector);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        DetectorRegistry.unregister(detectorName);
+        detector.dispose();
     }
 }
@@ -8,6 +8,8 @@ import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.segmentation.Segmentation;
 import com.google.mlkit.vision.segmentation.Segmenter;
 import com.google.mlkit.vision.segmentation.selfie.SelfieSegmenterOptions;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
 
 import java.nio.ByteBuffer;
@@ -17,12 +19,12 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-public class SelfieSegmenter implements MethodChannel.MethodCallHandler {
+public class SelfieSegmenter implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startSelfieSegmenter";
     private static final String CLOSE = "vision#closeSelfieSegmenter";
 
     private final Context context;
-    private final Map<String, Segmenter> instances = new HashMap<>();
+    private final ClientLifecycleManager<Segmenter> instances = new ClientLifecycleManager<>();
 
     public SelfieSegmenter(Context context) {
         this.context = context;
@@ -68,6 +70,11 @@ public class SelfieSegmenter implements MethodChannel.MethodCallHandler {
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         Segmenter segmenter = instances.get(id);
         if (segmenter == null) {
@@ -75,7 +82,10 @@ public class SelfieSegmenter implements MethodChannel.MethodCallHandler {
             instances.put(id, segmenter);
         }
 
-        segmenter.process(inputImage)
+        final Segmenter client = segmenter;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
                 .addOnSuccessListener(
                         segmentationMask -> {
                             Map<String, Object> map = new HashMap<>();
@@ -107,9 +117,10 @@ public class SelfieSegmenter implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        Segmenter segmenter = instances.get(id);
-        if (segmenter == null) return;
-        segmenter.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 }
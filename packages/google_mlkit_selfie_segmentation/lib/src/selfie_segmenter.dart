@@ -39,6 +39,21 @@ class SelfieSegmenter {
     return result == null ? null : SegmentationMask.fromJson(result);
   }
 
+  /// Returns a [PipelineStage] to run this segmenter as part of a [DetectionPipeline].
+  PipelineStage<SegmentationMask?> get pipelineStage => PipelineStage(
+      detector: 'selfie_segmentation',
+      arguments: {
+        'id': id,
+        'isStream': mode == SegmenterMode.stream,
+        'enableRawSizeMask': enableRawSizeMask,
+      },
+      parse: (json) => json == null ? null : SegmentationMask.fromJson(json));
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
   /// Closes the detector and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod('vision#closeSelfieSegmenter', {'id': id});
@@ -0,0 +1,86 @@
+package com.google_mlkit_smart_reply;
+
+import android.os.SystemClock;
+
+import com.google.mlkit.nl.smartreply.SmartReplyGenerator;
+import com.google.mlkit.nl.smartreply.SmartReplySuggestionResult;
+import com.google.mlkit.nl.smartreply.TextMessage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+//Suggests replies for several conversations with one generator, onComplete runs once all of them are done.
+//A few conversations are kept in flight, the reply maps each conversation id to its suggestions or error and timing.
+class BatchSmartReply {
+    interface Serializer {
+        Map<String, Object> serialize(SmartReplySuggestionResult smartReplySuggestionResult);
+    }
+
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private final SmartReplyGenerator generator;
+    private final List<String> conversationIds;
+    private final List<List<TextMessage>> conversations;
+    private final Serializer serializer;
+    private final MethodChannel.Result result;
+    private final Runnable onComplete;
+    private final Map<String, Object> results = new HashMap<>();
+    private int next;
+    private int completed;
+
+    BatchSmartReply(SmartReplyGenerator generator,
+                    List<String> conversationIds,
+                    List<List<TextMessage>> conversations,
+                    Serializer serializer,
+                    MethodChannel.Result result,
+                    Runnable onComplete) {
+        this.generator = generator;
+        this.conversationIds = conversationIds;
+        this.conversations = conversations;
+        this.serializer = serializer;
+        this.result = result;
+        this.onComplete = onComplete;
+    }
+
+    void start() {
+        if (conversations.isEmpty()) {
+            onComplete.run();
+            result.success(results);
+            return;
+        }
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            suggestNext();
+        }
+    }
+
+    private void suggestNext() {
+        if (next >= conversations.size()) return;
+        final int index = next++;
+        final long start = SystemClock.elapsedRealtime();
+        generator.suggestReplies(conversations.get(index))
+                .addOnSuccessListener(smartReplySuggestionResult -> {
+                    Map<String, Object> item = serializer.serialize(smartReplySuggestionResult);
+                    complete(index, item, start);
+                })
+                .addOnFailureListener(e -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("error", e.toString());
+                    complete(index, item, start);
+                });
+    }
+
+    private void complete(int index, Map<String, Object> item, long start) {
+        item.put("processMillis", SystemClock.elapsedRealtime() - start);
+        results.put(conversationIds.get(index), item);
+        completed++;
+        if (completed == conversations.size()) {
+            onComplete.run();
+            result.success(results);
+        } else {
+            suggestNext();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.google_mlkit_smart_reply;
+
+import com.google.mlkit.nl.smartreply.TextMessage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+//The recent messages of a conversation, kept natively so dart only has to send the new ones.
+//Only the last maxMessages are kept, older ones do not change the suggestions. The last suggestions are cached
+//until a message is added or the window changes, the version tells whether the conversation changed while suggestions were computed.
+class ConversationSession {
+    private final ArrayDeque<TextMessage> messages = new ArrayDeque<>();
+    private int maxMessages;
+    private int version;
+    private Map<String, Object> suggestions;
+    //Set by [ConversationSessions] on every use.
+    long lastUsed;
+
+    ConversationSession(int maxMessages) {
+        this.maxMessages = maxMessages;
+    }
+
+    void setMaxMessages(int maxMessages) {
+        if (maxMessages == this.maxMessages) return;
+        this.maxMessages = maxMessages;
+        trim();
+        version++;
+        suggestions = null;
+    }
+
+    void add(List<TextMessage> newMessages) {
+        if (newMessages.isEmpty()) return;
+        messages.addAll(newMessages);
+        trim();
+        version++;
+        suggestions = null;
+    }
+
+    void clear() {
+        messages.clear();
+        version++;
+        suggestions = null;
+    }
+
+    private void trim() {
+        while (messages.size() > maxMessages) {
+            messages.removeFirst();
+        }
+    }
+
+    List<TextMessage> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    boolean isEmpty() {
+        return messages.isEmpty();
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    Map<String, Object> getSuggestions() {
+        return suggestions;
+    }
+
+    //Caches the suggestions, unless the conversation changed since they were requested.
+    void setSuggestions(int version, Map<String, Object> suggestions) {
+        if (version == this.version) this.suggestions = suggestions;
+    }
+}
@@ -0,0 +1,59 @@
+package com.google_mlkit_smart_reply;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//The conversation sessions of the plugin keyed by session id, least recently used first.
+//A session dart never closes would keep its messages until the plugin is detached, so sessions not used for
+//the idle timeout are dropped and only the most recently used MAX_SESSIONS are kept. A dropped session starts again empty.
+class ConversationSessions {
+    static final int MAX_SESSIONS = 64;
+    static final long IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+
+    private final Map<String, ConversationSession> sessions = new LinkedHashMap<String, ConversationSession>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ConversationSession> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    };
+
+    //Returns the session for the id and marks it as used, null if there is none or it has been dropped.
+    ConversationSession get(String id, long now) {
+        expire(now);
+        ConversationSession session = sessions.get(id);
+        if (session != null) session.lastUsed = now;
+        return session;
+    }
+
+    ConversationSession getOrCreate(String id, int maxMessages, long now) {
+        ConversationSession session = get(id, now);
+        if (session == null) {
+            session = new ConversationSession(maxMessages);
+            session.lastUsed = now;
+            sessions.put(id, session);
+        }
+        return session;
+    }
+
+    void remove(String id) {
+        sessions.remove(id);
+    }
+
+    void clear() {
+        sessions.clear();
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    //Sessions are in the order they were last used, so the idle ones are all at the start.
+    private void expire(long now) {
+        Iterator<ConversationSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().lastUsed < IDLE_TIMEOUT_MILLIS) break;
+            iterator.remove();
+        }
+    }
+}
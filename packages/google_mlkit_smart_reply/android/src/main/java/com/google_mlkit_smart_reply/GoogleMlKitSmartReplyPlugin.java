@@ -7,16 +7,19 @@ import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitSmartReplyPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private SmartReply smartReply;
     private static final String channelName = "google_mlkit_smart_reply";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new SmartReply());
+        smartReply = new SmartReply();
+        channel.setMethodCallHandler(smartReply);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        smartReply.dispose();
     }
 }
@@ -1,11 +1,14 @@
 package com.google_mlkit_smart_reply;
 
+import android.os.SystemClock;
+
 import androidx.annotation.NonNull;
 
 import com.google.mlkit.nl.smartreply.SmartReplyGenerator;
 import com.google.mlkit.nl.smartreply.SmartReplySuggestion;
 import com.google.mlkit.nl.smartreply.SmartReplySuggestionResult;
 import com.google.mlkit.nl.smartreply.TextMessage;
+import com.google_mlkit_commons.ClientLifecycleManager;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -18,8 +21,19 @@ import io.flutter.plugin.common.MethodChannel;
 public class SmartReply implements MethodChannel.MethodCallHandler {
     private static final String START = "nlp#startSmartReply";
     private static final String CLOSE = "nlp#closeSmartReply";
+    private static final String APPEND_SESSION = "nlp#appendSmartReplySession";
+    private static final String START_SESSION = "nlp#startSmartReplySession";
+    private static final String CLEAR_SESSION = "nlp#clearSmartReplySession";
+    private static final String CLOSE_SESSION = "nlp#closeSmartReplySession";
+    private static final String START_BATCH = "nlp#startSmartReplyBatch";
+    //Smart reply only looks at the last 10 messages of a conversation.
+    private static final int DEFAULT_MAX_MESSAGES = 10;
+    //Id of the generator serving conversation sessions and batches, it holds no state between calls.
+    //Dart ids are timestamps, so it never clashes with the id of a SmartReply instance.
+    private static final String SHARED_GENERATOR_ID = "shared";
 
-    private final Map<String, SmartReplyGenerator> instances = new HashMap<>();
+    private final ClientLifecycleManager<SmartReplyGenerator> instances = new ClientLifecycleManager<>();
+    private final ConversationSessions sessions = new ConversationSessions();
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
@@ -32,6 +46,24 @@ public class SmartReply implements MethodChannel.MethodCallHandler {
                 closeDetector(call);
                 result.success(null);
                 break;
+            case APPEND_SESSION:
+                appendToSession(call);
+                result.success(null);
+                break;
+            case START_SESSION:
+                suggestReplyForSession(call, result);
+                break;
+            case CLEAR_SESSION:
+                clearSession(call);
+                result.success(null);
+                break;
+            case START_BATCH:
+                suggestReplyBatch(call, result);
+                break;
+            case CLOSE_SESSION:
+                sessions.remove(call.argument("sessionId"));
+                result.success(null);
+                break;
             default:
                 result.notImplemented();
                 break;
@@ -39,9 +71,95 @@ public class SmartReply implements MethodChannel.MethodCallHandler {
     }
 
     private void suggestReply(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
-        List<TextMessage> conversation = new ArrayList<>();
-        List<Map<String, Object>> json = call.argument("conversation");
+        List<TextMessage> conversation = parseMessages(call.argument("conversation"));
+
+        String id = call.argument("id");
+        SmartReplyGenerator smartReplyGenerator = instances.get(id);
+        if (smartReplyGenerator == null) {
+            smartReplyGenerator = com.google.mlkit.nl.smartreply.SmartReply.getClient();
+            instances.put(id, smartReplyGenerator);
+        }
+
+        final SmartReplyGenerator client = smartReplyGenerator;
+        instances.acquire(id, client);
+        client.suggestReplies(conversation)
+                .addOnCompleteListener(task -> instances.release(id, client))
+                .addOnSuccessListener(smartReplySuggestionResult -> result.success(serializeResult(smartReplySuggestionResult)))
+                .addOnFailureListener(e -> result.error("failed suggesting", e.toString(), null));
+    }
+
+    private void appendToSession(MethodCall call) {
+        String sessionId = call.argument("sessionId");
+        Integer maxMessages = call.argument("maxMessages");
+        ConversationSession session = sessions.getOrCreate(sessionId,
+                maxMessages != null ? maxMessages : DEFAULT_MAX_MESSAGES,
+                SystemClock.elapsedRealtime());
+        if (maxMessages != null) session.setMaxMessages(maxMessages);
+        session.add(parseMessages(call.argument("messages")));
+    }
+
+    private void clearSession(MethodCall call) {
+        String sessionId = call.argument("sessionId");
+        ConversationSession session = sessions.get(sessionId, SystemClock.elapsedRealtime());
+        if (session == null) return;
+        session.clear();
+    }
 
+    //Suggests replies for the messages kept in the session, the suggestions are reused until the next message is added.
+    private void suggestReplyForSession(MethodCall call, final MethodChannel.Result result) {
+        String sessionId = call.argument("sessionId");
+        final ConversationSession session = sessions.get(sessionId, SystemClock.elapsedRealtime());
+        if (session == null || session.isEmpty()) {
+            Map<String, Object> suggestionResult = new HashMap<>();
+            suggestionResult.put("status", SmartReplySuggestionResult.STATUS_NO_REPLY);
+            result.success(suggestionResult);
+            return;
+        }
+        Map<String, Object> cached = session.getSuggestions();
+        if (cached != null) {
+            result.success(cached);
+            return;
+        }
+
+        final int version = session.getVersion();
+        final SmartReplyGenerator generator = getSharedGenerator();
+        instances.acquire(SHARED_GENERATOR_ID, generator);
+        generator.suggestReplies(session.getMessages())
+                .addOnCompleteListener(task -> instances.release(SHARED_GENERATOR_ID, generator))
+                .addOnSuccessListener(smartReplySuggestionResult -> {
+                    Map<String, Object> suggestionResult = serializeResult(smartReplySuggestionResult);
+                    session.setSuggestions(version, suggestionResult);
+                    result.success(suggestionResult);
+                })
+                .addOnFailureListener(e -> result.error("failed suggesting", e.toString(), null));
+    }
+
+    //Suggests replies for several conversations at once, keyed by conversation id.
+    private void suggestReplyBatch(MethodCall call, final MethodChannel.Result result) {
+        List<Map<String, Object>> json = call.argument("conversations");
+        List<String> conversationIds = new ArrayList<>(json.size());
+        List<List<TextMessage>> conversations = new ArrayList<>(json.size());
+        for (Map<String, Object> conversation : json) {
+            conversationIds.add((String) conversation.get("id"));
+            conversations.add(parseMessages((List<Map<String, Object>>) conversation.get("messages")));
+        }
+        final SmartReplyGenerator generator = getSharedGenerator();
+        instances.acquire(SHARED_GENERATOR_ID, generator);
+        new BatchSmartReply(generator, conversationIds, conversations, SmartReply::serializeResult, result,
+                () -> instances.release(SHARED_GENERATOR_ID, generator)).start();
+    }
+
+    private SmartReplyGenerator getSharedGenerator() {
+        SmartReplyGenerator generator = instances.get(SHARED_GENERATOR_ID);
+        if (generator == null) {
+            generator = com.google.mlkit.nl.smartreply.SmartReply.getClient();
+            instances.put(SHARED_GENERATOR_ID, generator);
+        }
+        return generator;
+    }
+
+    private static List<TextMessage> parseMessages(List<Map<String, Object>> json) {
+        List<TextMessage> conversation = new ArrayList<>();
         for (final Map<String, Object> object : json) {
             String message = (String) object.get("message");
             long timestamp = (long) object.get("timestamp");
@@ -54,36 +172,30 @@ public class SmartReply implements MethodChannel.MethodCallHandler {
                         timestamp, userId));
             }
         }
+        return conversation;
+    }
 
-        String id = call.argument("id");
-        SmartReplyGenerator smartReplyGenerator = instances.get(id);
-        if (smartReplyGenerator == null) {
-            smartReplyGenerator = com.google.mlkit.nl.smartreply.SmartReply.getClient();
-            instances.put(id, smartReplyGenerator);
+    private static Map<String, Object> serializeResult(SmartReplySuggestionResult smartReplySuggestionResult) {
+        int status = smartReplySuggestionResult.getStatus();
+        Map<String, Object> suggestionResult = new HashMap<>();
+        suggestionResult.put("status", status);
+        if (status == SmartReplySuggestionResult.STATUS_SUCCESS) {
+            List<String> suggestions = new ArrayList<>();
+            for (SmartReplySuggestion suggestion : smartReplySuggestionResult.getSuggestions()) {
+                suggestions.add(suggestion.getText());
+            }
+            suggestionResult.put("suggestions", suggestions);
         }
-
-        smartReplyGenerator.suggestReplies(conversation)
-                .addOnSuccessListener(smartReplySuggestionResult -> {
-                    int status = smartReplySuggestionResult.getStatus();
-                    Map<String, Object> suggestionResult = new HashMap<>();
-                    suggestionResult.put("status", status);
-                    if (status == SmartReplySuggestionResult.STATUS_SUCCESS) {
-                        List<String> suggestions = new ArrayList<>();
-                        for (SmartReplySuggestion suggestion : smartReplySuggestionResult.getSuggestions()) {
-                            suggestions.add(suggestion.getText());
-                        }
-                        suggestionResult.put("suggestions", suggestions);
-                    }
-                    result.success(suggestionResult);
-                })
-                .addOnFailureListener(e -> result.error("failed suggesting", e.toString(), null));
+        return suggestionResult;
     }
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        SmartReplyGenerator smartReplyGenerator = instances.get(id);
-        if (smartReplyGenerator == null) return;
-        smartReplyGenerator.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
+        sessions.clear();
     }
 }
@@ -0,0 +1,53 @@
+package com.google_mlkit_smart_reply;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ConversationSessionsTest {
+    @Test
+    public void dropsIdleSessions() {
+        ConversationSessions sessions = new ConversationSessions();
+        ConversationSession idle = sessions.getOrCreate("idle", 10, 0);
+        ConversationSession used = sessions.getOrCreate("used", 10, 0);
+
+        assertSame(used, sessions.get("used", ConversationSessions.IDLE_TIMEOUT_MILLIS - 1));
+        assertSame(idle, sessions.get("idle", ConversationSessions.IDLE_TIMEOUT_MILLIS - 1));
+        assertNull(sessions.get("unknown", 2 * ConversationSessions.IDLE_TIMEOUT_MILLIS - 2));
+
+        assertNull(sessions.get("idle", 2 * ConversationSessions.IDLE_TIMEOUT_MILLIS));
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    public void keepsMostRecentlyUsedSessions() {
+        ConversationSessions sessions = new ConversationSessions();
+        ConversationSession first = sessions.getOrCreate("0", 10, 0);
+        for (int i = 1; i < ConversationSessions.MAX_SESSIONS; i++) {
+            sessions.getOrCreate(String.valueOf(i), 10, i);
+        }
+        //Using the first session makes the second one the least recently used.
+        assertSame(first, sessions.get("0", ConversationSessions.MAX_SESSIONS));
+        sessions.getOrCreate("new", 10, ConversationSessions.MAX_SESSIONS + 1);
+
+        assertEquals(ConversationSessions.MAX_SESSIONS, sessions.size());
+        assertNull(sessions.get("1", ConversationSessions.MAX_SESSIONS + 2));
+        assertNotNull(sessions.get("0", ConversationSessions.MAX_SESSIONS + 2));
+    }
+
+    @Test
+    public void droppedSessionStartsAgainEmpty() {
+        ConversationSessions sessions = new ConversationSessions();
+        ConversationSession dropped = sessions.getOrCreate("session", 10, 0);
+        sessions.remove("session");
+
+        ConversationSession created = sessions.getOrCreate("session", 5, 1);
+        assertNotSame(dropped, created);
+        assertTrue(created.isEmpty());
+    }
+}
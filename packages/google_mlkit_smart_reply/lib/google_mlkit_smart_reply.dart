@@ -1 +1,2 @@
 export 'src/smart_reply.dart';
+export 'src/smart_reply_session.dart';
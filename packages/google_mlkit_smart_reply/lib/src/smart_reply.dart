@@ -48,6 +48,27 @@ class SmartReply {
     return SmartReplySuggestionResult.fromJson(result);
   }
 
+  /// Suggests possible replies for each of the [conversations] in a single call, keyed by conversation id.
+  ///
+  /// A few conversations are processed concurrently by a shared generator.
+  /// Only available on Android.
+  static Future<Map<String, SmartReplyBatchResult>> suggestRepliesBatch(
+      Map<String, List<Message>> conversations) async {
+    final result = await _channel
+        .invokeMapMethod<String, dynamic>('nlp#startSmartReplyBatch', <String, dynamic>{
+      'conversations': conversations.entries
+          .map((conversation) => {
+                'id': conversation.key,
+                'messages': conversation.value
+                    .map((message) => message.toJson())
+                    .toList(),
+              })
+          .toList(),
+    });
+    return result!.map((conversationId, json) =>
+        MapEntry(conversationId, SmartReplyBatchResult.fromJson(json)));
+  }
+
   /// Closes the underlying resources including models used for reply inference.
   Future<void> close() =>
       _channel.invokeMethod('nlp#closeSmartReply', {'id': id});
@@ -112,3 +133,27 @@ class SmartReplySuggestionResult {
         'suggestions': suggestions,
       };
 }
+
+/// The result of [SmartReply.suggestRepliesBatch] for a single conversation.
+class SmartReplyBatchResult {
+  /// The suggestions, null if the conversation could not be processed.
+  final SmartReplySuggestionResult? result;
+
+  /// The error if the conversation could not be processed.
+  final String? error;
+
+  /// Time spent suggesting replies for the conversation.
+  final Duration processTime;
+
+  /// Constructor to create an instance of [SmartReplyBatchResult].
+  SmartReplyBatchResult({this.result, this.error, required this.processTime});
+
+  /// Returns an instance of [SmartReplyBatchResult] from a given [json].
+  factory SmartReplyBatchResult.fromJson(Map<dynamic, dynamic> json) =>
+      SmartReplyBatchResult(
+          result: json['error'] == null
+              ? SmartReplySuggestionResult.fromJson(json)
+              : null,
+          error: json['error'],
+          processTime: Duration(milliseconds: json['processMillis']));
+}
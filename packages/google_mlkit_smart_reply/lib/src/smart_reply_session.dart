@@ -0,0 +1,58 @@
+import 'package:flutter/services.dart';
+
+import 'smart_reply.dart';
+
+/// A conversation kept natively, so only new messages are sent over the platform channel.
+///
+/// Only the last [maxMessages] messages are kept, which is all smart reply looks at.
+/// Suggestions are cached natively until the next message is added.
+/// A session not used for 30 minutes is dropped natively, as are the least recently used ones beyond 64,
+/// it then starts again empty.
+/// Only available on Android.
+class SmartReplySession {
+  static const MethodChannel _channel =
+      MethodChannel('google_mlkit_smart_reply');
+
+  /// The number of most recent messages kept for the conversation.
+  final int maxMessages;
+
+  /// Session id.
+  final id = DateTime.now().microsecondsSinceEpoch.toString();
+
+  /// Constructor to create an instance of [SmartReplySession].
+  SmartReplySession({this.maxMessages = 10});
+
+  /// Adds a message from the local user to the conversation.
+  Future<void> addMessageFromLocalUser(String message, int timestamp) =>
+      addMessages(
+          [Message(text: message, timestamp: timestamp, userId: 'local')]);
+
+  /// Adds a message from a remote user to the conversation.
+  Future<void> addMessageFromRemoteUser(
+          String message, int timestamp, String userId) =>
+      addMessages(
+          [Message(text: message, timestamp: timestamp, userId: userId)]);
+
+  /// Adds the [messages] to the conversation, in order.
+  Future<void> addMessages(List<Message> messages) =>
+      _channel.invokeMethod('nlp#appendSmartReplySession', <String, dynamic>{
+        'sessionId': id,
+        'maxMessages': maxMessages,
+        'messages': messages.map((message) => message.toJson()).toList(),
+      });
+
+  /// Suggests possible replies in the context of the conversation.
+  Future<SmartReplySuggestionResult> suggestReplies() async {
+    final result = await _channel.invokeMethod(
+        'nlp#startSmartReplySession', <String, dynamic>{'sessionId': id});
+    return SmartReplySuggestionResult.fromJson(result);
+  }
+
+  /// Removes all messages from the conversation.
+  Future<void> clear() => _channel
+      .invokeMethod('nlp#clearSmartReplySession', <String, dynamic>{'sessionId': id});
+
+  /// Releases the conversation kept natively.
+  Future<void> close() => _channel
+      .invokeMethod('nlp#closeSmartReplySession', <String, dynamic>{'sessionId': id});
+}
@@ -21,15 +21,17 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
 import com.google.mlkit.vision.segmentation.subject.SubjectSegmenterOptions;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
 
-public class SubjectSegmenter implements MethodChannel.MethodCallHandler {
+public class SubjectSegmenter implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startSubjectSegmenter";
     private static final String CLOSE = "vision#closeSubjectSegmenter";
 
     private final Context context;
 
-    private final Map<String, com.google.mlkit.vision.segmentation.subject.SubjectSegmenter> instances = new HashMap<>();
+    private final ClientLifecycleManager<com.google.mlkit.vision.segmentation.subject.SubjectSegmenter> instances = new ClientLifecycleManager<>();
 
     public SubjectSegmenter(Context context) {
         this.context = context;
@@ -57,13 +59,24 @@ public class SubjectSegmenter implements MethodChannel.MethodCallHandler {
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         com.google.mlkit.vision.segmentation.subject.SubjectSegmenter subjectSegmenter = getOrCreateSegmenter(id, call);
-        subjectSegmenter.process(inputImage).addOnSuccessListener(subjectSegmentationResult -> processResult(subjectSegmentationResult, result)).addOnFailureListener(e -> result.error("Subject segmentation failure!", e.getMessage(), e));
+        instances.acquire(id, subjectSegmenter);
+        subjectSegmenter.process(inputImage).addOnCompleteListener(task -> instances.release(id, subjectSegmenter)).addOnSuccessListener(subjectSegmentationResult -> processResult(subjectSegmentationResult, result)).addOnFailureListener(e -> result.error("Subject segmentation failure!", e.getMessage(), e));
     }
 
     private com.google.mlkit.vision.segmentation.subject.SubjectSegmenter getOrCreateSegmenter(String id, MethodCall call) {
-        return instances.computeIfAbsent(id, k -> initialize(call));
+        com.google.mlkit.vision.segmentation.subject.SubjectSegmenter subjectSegmenter = instances.get(id);
+        if (subjectSegmenter == null) {
+            subjectSegmenter = initialize(call);
+            instances.put(id, subjectSegmenter);
+        }
+        return subjectSegmenter;
     }
 
     private com.google.mlkit.vision.segmentation.subject.SubjectSegmenter initialize(MethodCall call) {
@@ -146,9 +159,10 @@ public class SubjectSegmenter implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.segmentation.subject.SubjectSegmenter subjectSegmenter = instances.get(id);
-        if (subjectSegmenter == null) return;
-        subjectSegmenter.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
     }
 }
@@ -32,6 +32,17 @@ class SubjectSegmenter {
     return masks;
   }
 
+  /// Returns a [PipelineStage] to run this segmenter as part of a [DetectionPipeline].
+  PipelineStage<SubjectSegmentationResult> get pipelineStage => PipelineStage(
+      detector: 'subject_segmentation',
+      arguments: {'id': id, 'options': options.toJson()},
+      parse: (json) => SubjectSegmentationResult.fromJson(json));
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
   /// Closes the detector and releases its resources associated with it.
   ///
   /// This should be called when the detector is no longer needed to free up
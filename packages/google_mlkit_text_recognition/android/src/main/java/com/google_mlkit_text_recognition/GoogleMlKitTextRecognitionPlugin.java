@@ -2,21 +2,29 @@ package com.google_mlkit_text_recognition;
 
 import androidx.annotation.NonNull;
 
+import com.google_mlkit_commons.DetectorRegistry;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitTextRecognitionPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private TextRecognizer detector;
+    private static final String detectorName = "text";
     private static final String channelName = "google_mlkit_text_recognizer";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new TextRecognizer(flutterPluginBinding.getApplicationContext()));
+        detector = new TextRecognizer(flutterPluginBinding.getApplicationContext());
+        channel.setMethodCallHandler(detector);
+        DetectorRegistry.register(detectorName, detector);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        DetectorRegistry.unregister(detectorName);
+        detector.dispose();
     }
 }
@@ -14,7 +14,12 @@ import com.google.mlkit.vision.text.devanagari.DevanagariTextRecognizerOptions;
 import com.google.mlkit.vision.text.japanese.JapaneseTextRecognizerOptions;
 import com.google.mlkit.vision.text.korean.KoreanTextRecognizerOptions;
 import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
+import com.google_mlkit_commons.BatchImageProcessor;
+import com.google_mlkit_commons.ClientLifecycleManager;
+import com.google_mlkit_commons.DetectorScheduler;
+import com.google_mlkit_commons.ImageDetector;
 import com.google_mlkit_commons.InputImageConverter;
+import com.google_mlkit_commons.RequestTracker;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,15 +29,18 @@ import java.util.Map;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
-public class TextRecognizer implements MethodChannel.MethodCallHandler {
+public class TextRecognizer implements MethodChannel.MethodCallHandler, ImageDetector {
     private static final String START = "vision#startTextRecognizer";
+    private static final String START_BATCH = "vision#startTextRecognizerBatch";
     private static final String CLOSE = "vision#closeTextRecognizer";
 
     private final Context context;
-    private final Map<String, com.google.mlkit.vision.text.TextRecognizer> instances = new HashMap<>();
+    private final BatchImageProcessor batchImageProcessor;
+    private final ClientLifecycleManager<com.google.mlkit.vision.text.TextRecognizer> instances = new ClientLifecycleManager<>();
 
     public TextRecognizer(Context context) {
         this.context = context;
+        this.batchImageProcessor = new BatchImageProcessor(context);
     }
 
     @Override
@@ -40,7 +48,14 @@ public class TextRecognizer implements MethodChannel.MethodCallHandler {
         String method = call.method;
         switch (method) {
             case START:
-                handleDetection(call, result);
+                MethodChannel.Result trackedResult = RequestTracker.track(call, result);
+                if (trackedResult != null) {
+                    DetectorScheduler.getInstance().schedule(this, call, trackedResult,
+                            scheduledResult -> handleDetection(call, scheduledResult));
+                }
+                break;
+            case START_BATCH:
+                batchImageProcessor.process(call, this, result);
                 break;
             case CLOSE:
                 closeDetector(call);
@@ -76,11 +91,17 @@ public class TextRecognizer implements MethodChannel.MethodCallHandler {
     private void handleDetection(MethodCall call, final MethodChannel.Result result) {
         Map<String, Object> imageData = call.argument("imageData");
         if (imageData == null) {
+            result.error("TextRecognizerError", "Invalid image data", null);
             return;
         }
         InputImage inputImage = InputImageConverter.getInputImageFromData(imageData, context, result);
         if (inputImage == null) return;
 
+        process(inputImage, call, result);
+    }
+
+    @Override
+    public void process(InputImage inputImage, MethodCall call, final MethodChannel.Result result) {
         String id = call.argument("id");
         com.google.mlkit.vision.text.TextRecognizer textRecognizer = instances.get(id);
         if (textRecognizer == null) {
@@ -91,8 +112,12 @@ public class TextRecognizer implements MethodChannel.MethodCallHandler {
             result.error("TextRecognizerError", "TextRecognizer is not initialized", null);
             return;
         }
-        textRecognizer.process(inputImage)
+        final com.google.mlkit.vision.text.TextRecognizer client = textRecognizer;
+        instances.acquire(id, client);
+        client.process(inputImage)
+                .addOnCompleteListener(task -> instances.release(id, client))
                 .addOnSuccessListener(text -> {
+                    if (RequestTracker.skipIfCancelled(result)) return;
                     Map<String, Object> textResult = new HashMap<>();
 
                     textResult.put("text", text.getText());
@@ -202,9 +227,11 @@ public class TextRecognizer implements MethodChannel.MethodCallHandler {
 
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        com.google.mlkit.vision.text.TextRecognizer textRecognizer = instances.get(id);
-        if (textRecognizer == null) return;
-        textRecognizer.close();
-        instances.remove(id);
+        instances.close(id);
+    }
+
+    public void dispose() {
+        instances.closeAll();
+        batchImageProcessor.dispose();
     }
 }
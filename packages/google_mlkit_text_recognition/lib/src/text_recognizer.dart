@@ -19,16 +19,46 @@ class TextRecognizer {
   TextRecognizer({this.script = TextRecognitionScript.latin});
 
   /// Processes the given [InputImage]  for text recognition and returns a [RecognizedText] object.
-  Future<RecognizedText> processImage(InputImage inputImage) async {
+  /// Pass a [requestId] to be able to cancel the request with [DetectionRequests.cancel].
+  Future<RecognizedText> processImage(InputImage inputImage,
+      {String? requestId}) async {
     final result = await _channel.invokeMethod(
         'vision#startTextRecognizer', <String, dynamic>{
       'id': id,
       'imageData': inputImage.toJson(),
-      'script': script.index
+      'script': script.index,
+      if (requestId != null) 'requestId': requestId,
     });
     return RecognizedText.fromJson(result);
   }
 
+  /// Processes a batch of [images] for text recognition.
+  /// Results are streamed back as soon as each image is processed, at most [parallelism] images are decoded at once.
+  /// A [priority] overrides the scheduling priority of the detector for this batch.
+  /// Only available on Android.
+  Stream<BatchItemResult<RecognizedText>> processImages(
+          List<InputImage> images,
+          {int parallelism = 2, DetectorPriority? priority}) =>
+      BatchImageProcessing.process(
+          channel: _channel,
+          method: 'vision#startTextRecognizerBatch',
+          arguments: {'id': id, 'script': script.index},
+          images: images,
+          parse: (json) => RecognizedText.fromJson(json),
+          parallelism: parallelism,
+          priority: priority);
+
+  /// Returns a [PipelineStage] to run this recognizer as part of a [DetectionPipeline].
+  PipelineStage<RecognizedText> get pipelineStage => PipelineStage(
+      detector: 'text',
+      arguments: {'id': id, 'script': script.index},
+      parse: (json) => RecognizedText.fromJson(json));
+
+  /// Creates the native detector and runs it once on a blank image, so the first real image is processed without
+  /// the model initialization delay. Returns the time the warm-up took.
+  /// Only available on Android, on other platforms it does nothing and returns [Duration.zero].
+  Future<Duration> preload() => DetectorWarmUp.preload(pipelineStage);
+
   /// Closes the recognizer and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod('vision#closeTextRecognizer', {'id': id});
@@ -0,0 +1,113 @@
+package com.google_mlkit_translation;
+
+import com.google.mlkit.nl.translate.Translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodChannel;
+
+//Translates a list of strings with a single translator.
+//Duplicates are translated once and cached translations are reused. A few translations are kept in flight,
+//so the translator never waits for the next string. Results are returned in input order, and the optional listener
+//is notified as soon as each distinct string is translated.
+class BatchTranslation {
+    interface Listener {
+        void onTranslated(List<Integer> positions, String translation);
+    }
+
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private final Translator translator;
+    private final TranslationCache translationCache;
+    private final String sourceLanguage;
+    private final String targetLanguage;
+    private final List<String> texts;
+    private final Listener listener;
+    private final MethodChannel.Result result;
+    private final Runnable onFailure;
+
+    private final Map<String, List<Integer>> positions = new LinkedHashMap<>();
+    private List<String> unique;
+    private String[] translations;
+    private int next;
+    private int pending;
+    private boolean failed;
+
+    BatchTranslation(Translator translator,
+                     TranslationCache translationCache,
+                     String sourceLanguage,
+                     String targetLanguage,
+                     List<String> texts,
+                     Listener listener,
+                     MethodChannel.Result result,
+                     Runnable onFailure) {
+        this.translator = translator;
+        this.translationCache = translationCache;
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+        this.texts = texts;
+        this.listener = listener;
+        this.result = result;
+        this.onFailure = onFailure;
+    }
+
+    void start() {
+        for (int i = 0; i < texts.size(); i++) {
+            List<Integer> textPositions = positions.get(texts.get(i));
+            if (textPositions == null) {
+                textPositions = new ArrayList<>();
+                positions.put(texts.get(i), textPositions);
+            }
+            textPositions.add(i);
+        }
+        unique = new ArrayList<>(positions.keySet());
+        translations = new String[texts.size()];
+        pending = unique.size();
+        if (pending == 0) {
+            result.success(new ArrayList<String>());
+            return;
+        }
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            translateNext();
+        }
+    }
+
+    private void translateNext() {
+        while (next < unique.size() && !failed) {
+            final String text = unique.get(next++);
+            String cached = translationCache.get(sourceLanguage, targetLanguage, text);
+            if (cached != null) {
+                complete(text, cached);
+                continue;
+            }
+            translator.translate(text)
+                    .addOnSuccessListener(translatedText -> {
+                        translationCache.put(sourceLanguage, targetLanguage, text, translatedText);
+                        complete(text, translatedText);
+                        translateNext();
+                    })
+                    .addOnFailureListener(e -> {
+                        if (failed) return;
+                        failed = true;
+                        onFailure.run();
+                        result.error("error translating", e.toString(), null);
+                    });
+            return;
+        }
+    }
+
+    private void complete(String text, String translatedText) {
+        if (failed) return;
+        List<Integer> textPositions = positions.get(text);
+        for (int position : textPositions) {
+            translations[position] = translatedText;
+        }
+        if (listener != null) listener.onTranslated(textPositions, translatedText);
+        pending--;
+        if (pending == 0) result.success(Arrays.asList(translations));
+    }
+}
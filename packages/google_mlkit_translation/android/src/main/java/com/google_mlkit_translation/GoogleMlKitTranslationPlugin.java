@@ -1,5 +1,7 @@
 package com.google_mlkit_translation;
 
+import android.content.Context;
+
 import androidx.annotation.NonNull;
 
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
@@ -7,16 +9,23 @@ import io.flutter.plugin.common.MethodChannel;
 
 public class GoogleMlKitTranslationPlugin implements FlutterPlugin {
     private MethodChannel channel;
+    private TextTranslator textTranslator;
+    private Context context;
     private static final String channelName = "google_mlkit_on_device_translator";
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
         channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), channelName);
-        channel.setMethodCallHandler(new TextTranslator());
+        context = flutterPluginBinding.getApplicationContext();
+        textTranslator = new TextTranslator(context);
+        context.registerComponentCallbacks(textTranslator.getComponentCallbacks());
+        channel.setMethodCallHandler(textTranslator);
     }
 
     @Override
     public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
         channel.setMethodCallHandler(null);
+        context.unregisterComponentCallbacks(textTranslator.getComponentCallbacks());
+        textTranslator.dispose();
     }
 }
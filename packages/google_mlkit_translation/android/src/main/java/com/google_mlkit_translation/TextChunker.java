@@ -0,0 +1,96 @@
+package com.google_mlkit_translation;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+//Splits long text into chunks at paragraph boundaries, and at sentence boundaries for paragraphs longer than the maximum chunk length.
+//Whitespace around each chunk is kept aside, so the translated chunks can be joined back with the original layout.
+class TextChunker {
+    static class Chunk {
+        final String leading;
+        final String content;
+        final String trailing;
+
+        Chunk(String leading, String content, String trailing) {
+            this.leading = leading;
+            this.content = content;
+            this.trailing = trailing;
+        }
+    }
+
+    static List<Chunk> split(String text, int maxLength, Locale locale) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int newline = text.indexOf('\n', start);
+            int end = newline < 0 ? text.length() : newline + 1;
+            //Keep blank lines with the paragraph they follow.
+            while (end < text.length() && Character.isWhitespace(text.charAt(end))) end++;
+            String paragraph = text.substring(start, end);
+            if (paragraph.length() <= maxLength) pieces.add(paragraph);
+            else splitSentences(paragraph, maxLength, locale, pieces);
+            start = end;
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        String leading = "";
+        for (String piece : pieces) {
+            int contentStart = 0;
+            while (contentStart < piece.length() && Character.isWhitespace(piece.charAt(contentStart))) contentStart++;
+            int contentEnd = piece.length();
+            while (contentEnd > contentStart && Character.isWhitespace(piece.charAt(contentEnd - 1))) contentEnd--;
+            if (contentStart == contentEnd) {
+                //Whitespace only, attach it to the previous chunk, or to the next one at the start of the text.
+                if (chunks.isEmpty()) {
+                    leading += piece;
+                } else {
+                    Chunk last = chunks.remove(chunks.size() - 1);
+                    chunks.add(new Chunk(last.leading, last.content, last.trailing + piece));
+                }
+                continue;
+            }
+            chunks.add(new Chunk(leading + piece.substring(0, contentStart),
+                    piece.substring(contentStart, contentEnd),
+                    piece.substring(contentEnd)));
+            leading = "";
+        }
+        if (chunks.isEmpty() && !leading.isEmpty()) chunks.add(new Chunk(leading, "", ""));
+        return chunks;
+    }
+
+    private static void splitSentences(String paragraph, int maxLength, Locale locale, List<String> pieces) {
+        BreakIterator iterator = BreakIterator.getSentenceInstance(locale);
+        iterator.setText(paragraph);
+        StringBuilder current = new StringBuilder();
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            String sentence = paragraph.substring(start, end);
+            if (current.length() + sentence.length() > maxLength && current.length() > 0) {
+                pieces.add(current.toString());
+                current.setLength(0);
+            }
+            if (sentence.length() > maxLength) {
+                splitWords(sentence, maxLength, pieces);
+            } else {
+                current.append(sentence);
+            }
+        }
+        if (current.length() > 0) pieces.add(current.toString());
+    }
+
+    //Last resort for sentences longer than the maximum: split at the last whitespace before the limit.
+    private static void splitWords(String sentence, int maxLength, List<String> pieces) {
+        int start = 0;
+        while (sentence.length() - start > maxLength) {
+            int end = start + maxLength;
+            int space = end;
+            while (space > start && !Character.isWhitespace(sentence.charAt(space - 1))) space--;
+            if (space > start) end = space;
+            pieces.add(sentence.substring(start, end));
+            start = end;
+        }
+        if (start < sentence.length()) pieces.add(sentence.substring(start));
+    }
+}
@@ -1,14 +1,29 @@
 package com.google_mlkit_translation;
 
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.SystemClock;
+
 import androidx.annotation.NonNull;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.nl.languageid.LanguageIdentification;
+import com.google.mlkit.nl.languageid.LanguageIdentificationOptions;
+import com.google.mlkit.nl.languageid.LanguageIdentifier;
+import com.google.mlkit.nl.translate.TranslateLanguage;
 import com.google.mlkit.nl.translate.TranslateRemoteModel;
-import com.google.mlkit.nl.translate.Translation;
 import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
+import com.google_mlkit_commons.ClientLifecycleManager;
 import com.google_mlkit_commons.GenericModelManager;
+import com.google_mlkit_commons.ModelReadiness;
+import com.google_mlkit_commons.ResultStream;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import io.flutter.plugin.common.MethodCall;
@@ -16,11 +31,36 @@ import io.flutter.plugin.common.MethodChannel;
 
 public class TextTranslator implements MethodChannel.MethodCallHandler {
     private static final String START = "nlp#startLanguageTranslator";
+    private static final String START_BATCH = "nlp#startLanguageTranslatorBatch";
+    private static final String START_LONG_TEXT = "nlp#startLanguageTranslatorLongText";
+    private static final String START_FAN_OUT = "nlp#startLanguageTranslatorFanOut";
+    private static final String START_DETECT_AND_TRANSLATE = "nlp#startLanguageTranslatorDetectAndTranslate";
+    private static final float DEFAULT_CONFIDENCE = 0.5f;
+    private static final String UNDETERMINED_LANGUAGE = "und";
+    private static final int DEFAULT_MAX_CHUNK_LENGTH = 500;
     private static final String CLOSE = "nlp#closeLanguageTranslator";
     private static final String MANAGE = "nlp#manageLanguageModelModels";
+    private static final String CONFIGURE_CACHE = "nlp#configureTranslationCache";
+    private static final String CACHE_STATS = "nlp#getTranslationCacheStats";
+    private static final String CLEAR_CACHE = "nlp#clearTranslationCache";
+    private static final String CONFIGURE_POOL = "nlp#configureTranslatorPool";
+    private static final String POOL_CONTENTS = "nlp#getTranslatorPoolContents";
 
-    private final Map<String, Translator> instances = new HashMap<>();
+    //Language pair of each instance id, the translators themselves are shared through the pool.
+    private final Map<String, String[]> instances = new HashMap<>();
+    private final TranslatorPool translatorPool;
+    //Language identifiers used to detect the source language, keyed by confidence threshold, closed when idle.
+    private final ClientLifecycleManager<LanguageIdentifier> languageIdentifiers = new ClientLifecycleManager<>();
     private final GenericModelManager genericModelManager = new GenericModelManager();
+    private final TranslationCache translationCache;
+    //Translators whose models are known to be downloaded, they can translate without asking the model manager first.
+    private final ModelReadiness<Translator> readyTranslators = new ModelReadiness<>();
+
+    public TextTranslator(Context context) {
+        this.translationCache = new TranslationCache(context);
+        this.translatorPool = new TranslatorPool(readyTranslators::remove);
+        genericModelManager.setOnModelDeletedListener(readyTranslators);
+    }
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
@@ -29,6 +69,18 @@ public class TextTranslator implements MethodChannel.MethodCallHandler {
             case START:
                 translateText(call, result);
                 break;
+            case START_BATCH:
+                translateTextBatch(call, result);
+                break;
+            case START_LONG_TEXT:
+                translateLongText(call, result);
+                break;
+            case START_FAN_OUT:
+                translateToTargets(call, result);
+                break;
+            case START_DETECT_AND_TRANSLATE:
+                detectAndTranslate(call, result);
+                break;
             case CLOSE:
                 closeDetector(call);
                 result.success(null);
@@ -36,6 +88,27 @@ public class TextTranslator implements MethodChannel.MethodCallHandler {
             case MANAGE:
                 manageModel(call, result);
                 break;
+            case CONFIGURE_CACHE:
+                Integer maxEntries = call.argument("maxEntries");
+                Boolean persist = call.argument("persist");
+                translationCache.configure(maxEntries != null ? maxEntries : 0, persist != null && persist);
+                result.success(null);
+                break;
+            case CACHE_STATS:
+                result.success(translationCache.getStats());
+                break;
+            case CLEAR_CACHE:
+                translationCache.clear();
+                result.success(null);
+                break;
+            case CONFIGURE_POOL:
+                Integer maxTranslators = call.argument("maxTranslators");
+                translatorPool.configure(maxTranslators != null ? maxTranslators : 0);
+                result.success(null);
+                break;
+            case POOL_CONTENTS:
+                result.success(translatorPool.getContents());
+                break;
             default:
                 result.notImplemented();
                 break;
@@ -44,29 +117,31 @@ public class TextTranslator implements MethodChannel.MethodCallHandler {
 
     private void translateText(MethodCall call, final MethodChannel.Result result) {
         String text = call.argument("text");
+        String sourceLanguage = call.argument("source");
+        String targetLanguage = call.argument("target");
 
-        String id = call.argument("id");
-        Translator onDeviceTranslator = instances.get(id);
-        if (onDeviceTranslator == null) {
-            String sourceLanguage = call.argument("source");
-            String targetLanguage = call.argument("target");
-            TranslatorOptions options = new TranslatorOptions.Builder()
-                    .setSourceLanguage(sourceLanguage)
-                    .setTargetLanguage(targetLanguage)
-                    .build();
-            onDeviceTranslator = Translation.getClient(options);
-            instances.put(id, onDeviceTranslator);
+        String cached = translationCache.get(sourceLanguage, targetLanguage, text);
+        if (cached != null) {
+            result.success(cached);
+            return;
         }
-        final Translator translator = onDeviceTranslator;
 
-        translator.downloadModelIfNeeded()
+        final Translator translator = getTranslator(call);
+
+        ensureReady(translator)
                 .addOnSuccessListener(
                         (OnSuccessListener) -> {
                             // Model downloaded successfully. Okay to start translating.
                             translator.translate(text)
-                                    .addOnSuccessListener(result::success)
-                                    .addOnFailureListener(
-                                            e -> result.error("error translating", e.toString(), null));
+                                    .addOnSuccessListener(translatedText -> {
+                                        translationCache.put(sourceLanguage, targetLanguage, text, translatedText);
+                                        result.success(translatedText);
+                                    })
+                                    .addOnFailureListener(e -> {
+                                        //The models may have been removed outside of the plugin, check again on the next call.
+                                        readyTranslators.remove(translator);
+                                        result.error("error translating", e.toString(), null);
+                                    });
                         })
                 .addOnFailureListener(
                         e -> {
@@ -75,12 +150,304 @@ public class TextTranslator implements MethodChannel.MethodCallHandler {
                         });
     }
 
+    private void translateTextBatch(MethodCall call, final MethodChannel.Result result) {
+        List<String> texts = call.argument("texts");
+        String sourceLanguage = call.argument("source");
+        String targetLanguage = call.argument("target");
+        String streamId = call.argument("streamId");
+        final Translator translator = getTranslator(call);
+
+        BatchTranslation.Listener listener = null;
+        if (streamId != null) {
+            listener = (positions, translation) -> {
+                Map<String, Object> event = new HashMap<>();
+                event.put("indices", positions);
+                event.put("translation", translation);
+                ResultStream.emit(streamId, event);
+            };
+        }
+        translateAll(translator, sourceLanguage, targetLanguage, texts, listener, result);
+    }
+
+    //Splits the text at paragraph and sentence boundaries and translates the chunks in order.
+    //Each translated chunk is pushed to dart as soon as it is ready, the reply contains the whole translation.
+    private void translateLongText(MethodCall call, final MethodChannel.Result result) {
+        String text = call.argument("text");
+        String sourceLanguage = call.argument("source");
+        String targetLanguage = call.argument("target");
+        String streamId = call.argument("streamId");
+        Integer maxChunkLength = call.argument("maxChunkLength");
+        if (text == null || sourceLanguage == null || targetLanguage == null) {
+            result.error("TranslatorError", "Invalid arguments", null);
+            return;
+        }
+        if (TranslateLanguage.fromLanguageTag(sourceLanguage) == null
+                || TranslateLanguage.fromLanguageTag(targetLanguage) == null) {
+            result.error("TranslatorError", "Unsupported language", null);
+            return;
+        }
+        final Translator translator = getTranslator(call);
+
+        final List<TextChunker.Chunk> chunks = TextChunker.split(text,
+                maxChunkLength != null && maxChunkLength > 0 ? maxChunkLength : DEFAULT_MAX_CHUNK_LENGTH,
+                Locale.forLanguageTag(sourceLanguage));
+        List<String> contents = new ArrayList<>(chunks.size());
+        for (TextChunker.Chunk chunk : chunks) {
+            contents.add(chunk.content);
+        }
+
+        BatchTranslation.Listener listener = (positions, translation) -> {
+            if (streamId == null) return;
+            for (int position : positions) {
+                TextChunker.Chunk chunk = chunks.get(position);
+                Map<String, Object> event = new HashMap<>();
+                event.put("index", position);
+                event.put("count", chunks.size());
+                event.put("text", chunk.leading + translation + chunk.trailing);
+                ResultStream.emit(streamId, event);
+            }
+        };
+        translateAll(translator, sourceLanguage, targetLanguage, contents, listener, new MethodChannel.Result() {
+            @Override
+            public void success(Object o) {
+                List<String> translations = (List<String>) o;
+                StringBuilder builder = new StringBuilder();
+                for (int i = 0; i < chunks.size(); i++) {
+                    builder.append(chunks.get(i).leading).append(translations.get(i)).append(chunks.get(i).trailing);
+                }
+                result.success(builder.toString());
+            }
+
+            @Override
+            public void error(String errorCode, String errorMessage, Object errorDetails) {
+                result.error(errorCode, errorMessage, errorDetails);
+            }
+
+            @Override
+            public void notImplemented() {
+                result.notImplemented();
+            }
+        });
+    }
+
+    //Translates the same text into several languages concurrently, replies with the translation and latency per target.
+    private void translateToTargets(MethodCall call, final MethodChannel.Result result) {
+        final String text = call.argument("text");
+        final String sourceLanguage = call.argument("source");
+        final List<String> targetLanguages = call.argument("targets");
+        final Map<String, Object> translations = new HashMap<>();
+        if (targetLanguages == null || targetLanguages.isEmpty()) {
+            result.success(translations);
+            return;
+        }
+
+        final int[] pending = {targetLanguages.size()};
+        for (final String targetLanguage : targetLanguages) {
+            final long start = SystemClock.elapsedRealtime();
+            final Map<String, Object> targetResult = new HashMap<>();
+            translations.put(targetLanguage, targetResult);
+            final Runnable complete = () -> {
+                targetResult.put("latencyMillis", SystemClock.elapsedRealtime() - start);
+                pending[0]--;
+                if (pending[0] == 0) result.success(translations);
+            };
+
+            if (targetLanguage.equals(sourceLanguage)) {
+                targetResult.put("translation", text);
+                complete.run();
+                continue;
+            }
+
+            String cached = translationCache.get(sourceLanguage, targetLanguage, text);
+            if (cached != null) {
+                targetResult.put("translation", cached);
+                complete.run();
+                continue;
+            }
+
+            final Translator translator = translatorPool.acquire(sourceLanguage, targetLanguage);
+            ensureReady(translator)
+                    .onSuccessTask(aVoid -> translator.translate(text))
+                    .addOnSuccessListener(translatedText -> {
+                        translationCache.put(sourceLanguage, targetLanguage, text, translatedText);
+                        targetResult.put("translation", translatedText);
+                        translatorPool.release(sourceLanguage, targetLanguage);
+                        complete.run();
+                    })
+                    .addOnFailureListener(e -> {
+                        readyTranslators.remove(translator);
+                        targetResult.put("error", e.toString());
+                        translatorPool.release(sourceLanguage, targetLanguage);
+                        complete.run();
+                    });
+        }
+    }
+
+    //Identifies the language of each text and translates it into the target language without going back to dart.
+    //Texts are grouped by detected language, each group is translated as one batch by the pooled translator of its pair.
+    private void detectAndTranslate(MethodCall call, final MethodChannel.Result result) {
+        final List<String> texts = call.argument("texts");
+        final String targetLanguage = call.argument("target");
+        if (texts == null || targetLanguage == null) {
+            result.error("TranslatorError", "Invalid arguments", null);
+            return;
+        }
+        Double confidence = call.argument("confidence");
+        float threshold = confidence != null ? confidence.floatValue() : DEFAULT_CONFIDENCE;
+        final String identifierId = String.valueOf(threshold);
+        final LanguageIdentifier languageIdentifier = getLanguageIdentifier(identifierId, threshold);
+        languageIdentifiers.acquire(identifierId, languageIdentifier);
+
+        final List<Map<String, Object>> items = new ArrayList<>(texts.size());
+        final List<Task<String>> identifications = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            items.add(new HashMap<>());
+            identifications.add(languageIdentifier.identifyLanguage(text));
+        }
+
+        Tasks.whenAllComplete(identifications).addOnCompleteListener(task -> {
+            languageIdentifiers.release(identifierId, languageIdentifier);
+            final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < texts.size(); i++) {
+                Task<String> identification = identifications.get(i);
+                Map<String, Object> item = items.get(i);
+                if (!identification.isSuccessful()) {
+                    item.put("error", String.valueOf(identification.getException()));
+                    continue;
+                }
+                String languageTag = identification.getResult();
+                item.put("language", languageTag);
+                if (UNDETERMINED_LANGUAGE.equals(languageTag)) {
+                    item.put("error", "Language could not be identified");
+                    continue;
+                }
+                String sourceLanguage = TranslateLanguage.fromLanguageTag(languageTag);
+                if (sourceLanguage == null) {
+                    item.put("error", "Language can not be translated: " + languageTag);
+                    continue;
+                }
+                //The identified tag may be more specific than the translation language, e.g. a script or region subtag.
+                item.put("source", sourceLanguage);
+                if (sourceLanguage.equals(targetLanguage)) {
+                    item.put("translation", texts.get(i));
+                    continue;
+                }
+                List<Integer> positions = groups.get(sourceLanguage);
+                if (positions == null) {
+                    positions = new ArrayList<>();
+                    groups.put(sourceLanguage, positions);
+                }
+                positions.add(i);
+            }
+            if (groups.isEmpty()) {
+                result.success(items);
+                return;
+            }
+
+            final int[] pending = {groups.size()};
+            for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+                final String sourceLanguage = group.getKey();
+                final List<Integer> positions = group.getValue();
+                List<String> groupTexts = new ArrayList<>(positions.size());
+                for (int position : positions) {
+                    groupTexts.add(texts.get(position));
+                }
+                final Runnable complete = () -> {
+                    translatorPool.release(sourceLanguage, targetLanguage);
+                    pending[0]--;
+                    if (pending[0] == 0) result.success(items);
+                };
+
+                Translator translator = translatorPool.acquire(sourceLanguage, targetLanguage);
+                translateAll(translator, sourceLanguage, targetLanguage, groupTexts, null, new MethodChannel.Result() {
+                    @Override
+                    public void success(Object o) {
+                        List<String> translations = (List<String>) o;
+                        for (int i = 0; i < positions.size(); i++) {
+                            items.get(positions.get(i)).put("translation", translations.get(i));
+                        }
+                        complete.run();
+                    }
+
+                    @Override
+                    public void error(String errorCode, String errorMessage, Object errorDetails) {
+                        for (int position : positions) {
+                            items.get(position).put("error", errorMessage);
+                        }
+                        complete.run();
+                    }
+
+                    @Override
+                    public void notImplemented() {
+                        complete.run();
+                    }
+                });
+            }
+        });
+    }
+
+    private LanguageIdentifier getLanguageIdentifier(String id, float confidence) {
+        LanguageIdentifier languageIdentifier = languageIdentifiers.get(id);
+        if (languageIdentifier == null) {
+            languageIdentifier = LanguageIdentification.getClient(
+                    new LanguageIdentificationOptions.Builder()
+                            .setConfidenceThreshold(confidence)
+                            .build());
+            languageIdentifiers.put(id, languageIdentifier);
+        }
+        return languageIdentifier;
+    }
+
+    private void translateAll(final Translator translator,
+                              String sourceLanguage,
+                              String targetLanguage,
+                              List<String> texts,
+                              BatchTranslation.Listener listener,
+                              final MethodChannel.Result result) {
+        ensureReady(translator)
+                .addOnSuccessListener(aVoid -> new BatchTranslation(translator, translationCache,
+                        sourceLanguage, targetLanguage, texts, listener, result,
+                        () -> readyTranslators.remove(translator)).start())
+                .addOnFailureListener(
+                        e -> result.error("Error building translator", "Either source or target models not downloaded", null));
+    }
+
+    //Each instance id holds one reference to the pooled translator of its pair until it is closed.
+    private Translator getTranslator(MethodCall call) {
+        String id = call.argument("id");
+        String[] pair = instances.get(id);
+        if (pair == null) {
+            pair = new String[]{call.argument("source"), call.argument("target")};
+            instances.put(id, pair);
+            return translatorPool.acquire(pair[0], pair[1]);
+        }
+        return translatorPool.get(pair[0], pair[1]);
+    }
+
+    private Task<Void> ensureReady(final Translator translator) {
+        if (readyTranslators.isReady(translator)) return Tasks.forResult(null);
+        return translator.downloadModelIfNeeded()
+                .addOnSuccessListener(aVoid -> readyTranslators.setReady(translator));
+    }
+
     private void closeDetector(MethodCall call) {
         String id = call.argument("id");
-        Translator translator = instances.get(id);
-        if (translator == null) return;
-        translator.close();
-        instances.remove(id);
+        String[] pair = instances.remove(id);
+        if (pair == null) return;
+        //The translator stays in the pool for reuse, the pool closes it once it is evicted.
+        translatorPool.release(pair[0], pair[1]);
+    }
+
+    public ComponentCallbacks2 getComponentCallbacks() {
+        return translatorPool;
+    }
+
+    public void dispose() {
+        translationCache.dispose();
+        translatorPool.dispose();
+        languageIdentifiers.closeAll();
+        instances.clear();
+        readyTranslators.clear();
     }
 
     private void manageModel(MethodCall call, final MethodChannel.Result result) {
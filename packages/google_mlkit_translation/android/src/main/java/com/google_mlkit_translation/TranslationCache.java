@@ -0,0 +1,197 @@
+package com.google_mlkit_translation;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//LRU cache of translations keyed by (source, target, text).
+//When persistence is enabled the entries are stored in an app-private file, so they survive restarts.
+class TranslationCache {
+    private static final String FILE_NAME = "google_mlkit_translation_cache";
+    private static final int DEFAULT_MAX_ENTRIES = 500;
+    private static final long SAVE_DELAY_SECONDS = 5;
+    //Rough per entry overhead of the map node and the two strings.
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private final File file;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    //Access ordered, the eldest entry is the least recently used one.
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private boolean persist;
+    private boolean saveScheduled;
+    private long memoryBytes;
+    private long hits;
+    private long misses;
+
+    TranslationCache(Context context) {
+        this.file = new File(context.getFilesDir(), FILE_NAME);
+    }
+
+    synchronized void configure(int maxEntries, boolean persist) {
+        this.maxEntries = Math.max(maxEntries, 0);
+        trim();
+        boolean load = persist && !this.persist;
+        //The stored entries are only dropped when persistence is turned off, not on every non-persistent configuration.
+        boolean delete = !persist && this.persist;
+        this.persist = persist;
+        if (load) execute(this::load);
+        if (delete) execute(file::delete);
+    }
+
+    synchronized String get(String source, String target, String text) {
+        String translation = entries.get(key(source, target, text));
+        if (translation != null) hits++;
+        else misses++;
+        return translation;
+    }
+
+    synchronized void put(String source, String target, String text, String translation) {
+        if (maxEntries == 0) return;
+        String key = key(source, target, text);
+        String previous = entries.put(key, translation);
+        if (previous != null) memoryBytes -= sizeOf(key, previous);
+        memoryBytes += sizeOf(key, translation);
+        trim();
+        scheduleSave();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        memoryBytes = 0;
+        hits = 0;
+        misses = 0;
+        execute(file::delete);
+    }
+
+    synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long lookups = hits + misses;
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", lookups > 0 ? (double) hits / lookups : 0.0);
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("memoryBytes", memoryBytes);
+        stats.put("persist", persist);
+        return stats;
+    }
+
+    //Writes pending changes to disk and stops the background thread.
+    synchronized void dispose() {
+        execute(this::save);
+        executor.shutdown();
+    }
+
+    //Runs the task on the background thread, dropped once the cache has been disposed.
+    private void execute(Runnable task) {
+        if (executor.isShutdown()) return;
+        executor.execute(task);
+    }
+
+    private void trim() {
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, String> eldest = entries.entrySet().iterator().next();
+            memoryBytes -= sizeOf(eldest.getKey(), eldest.getValue());
+            entries.remove(eldest.getKey());
+        }
+    }
+
+    private void scheduleSave() {
+        if (!persist || saveScheduled || executor.isShutdown()) return;
+        saveScheduled = true;
+        executor.schedule(this::save, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void save() {
+        List<Map.Entry<String, String>> snapshot;
+        synchronized (this) {
+            saveScheduled = false;
+            if (!persist) return;
+            snapshot = new ArrayList<>(entries.size());
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                snapshot.add(new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue()));
+            }
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, String> entry : snapshot) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            Log.e("TranslationCache", "Saving cache failed", e);
+            return;
+        }
+        if (!tmp.renameTo(file)) Log.e("TranslationCache", "Saving cache failed");
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+        List<String[]> loaded = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                loaded.add(new String[]{readString(in), readString(in)});
+            }
+        } catch (IOException e) {
+            Log.e("TranslationCache", "Loading cache failed", e);
+            return;
+        }
+        synchronized (this) {
+            //Entries are stored eldest first, entries translated since startup stay the most recent.
+            LinkedHashMap<String, String> current = new LinkedHashMap<>(entries);
+            entries.clear();
+            memoryBytes = 0;
+            for (String[] entry : loaded) {
+                entries.put(entry[0], entry[1]);
+                memoryBytes += sizeOf(entry[0], entry[1]);
+            }
+            for (Map.Entry<String, String> entry : current.entrySet()) {
+                String previous = entries.put(entry.getKey(), entry.getValue());
+                if (previous != null) memoryBytes -= sizeOf(entry.getKey(), previous);
+                memoryBytes += sizeOf(entry.getKey(), entry.getValue());
+            }
+            trim();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String key(String source, String target, String text) {
+        return source + '\u0000' + target + '\u0000' + text;
+    }
+
+    private static long sizeOf(String key, String value) {
+        return ENTRY_OVERHEAD_BYTES + 2L * (key.length() + value.length());
+    }
+}
@@ -0,0 +1,153 @@
+package com.google_mlkit_translation;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import com.google.mlkit.nl.translate.Translation;
+import com.google.mlkit.nl.translate.Translator;
+import com.google.mlkit.nl.translate.TranslatorOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//Translators shared by language pair, so two users of the same pair load the model only once.
+//Translators are reference counted, the ones nobody uses stay around for reuse until the pool grows over its budget
+//or the system asks to trim memory, then the least recently used ones are closed first.
+//Only used from the main thread.
+class TranslatorPool implements ComponentCallbacks2 {
+    private static final int DEFAULT_MAX_TRANSLATORS = 4;
+
+    interface OnEvictedListener {
+        void onEvicted(Translator translator);
+    }
+
+    private static class Entry {
+        final String sourceLanguage;
+        final String targetLanguage;
+        final Translator translator;
+        int references;
+        long lastUsed;
+
+        Entry(String sourceLanguage, String targetLanguage, Translator translator) {
+            this.sourceLanguage = sourceLanguage;
+            this.targetLanguage = targetLanguage;
+            this.translator = translator;
+        }
+    }
+
+    //Access ordered, the eldest entry is the least recently used one.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final OnEvictedListener onEvictedListener;
+    private int maxTranslators = DEFAULT_MAX_TRANSLATORS;
+    private long evictions;
+
+    TranslatorPool(OnEvictedListener onEvictedListener) {
+        this.onEvictedListener = onEvictedListener;
+    }
+
+    void configure(int maxTranslators) {
+        this.maxTranslators = Math.max(maxTranslators, 0);
+        trim(this.maxTranslators);
+    }
+
+    //Returns the translator for a pair that is already acquired, without taking another reference.
+    Translator get(String sourceLanguage, String targetLanguage) {
+        Entry entry = entries.get(key(sourceLanguage, targetLanguage));
+        if (entry == null) return null;
+        entry.lastUsed = SystemClock.elapsedRealtime();
+        return entry.translator;
+    }
+
+    //Returns the translator for the pair, every acquire has to be followed by a release.
+    Translator acquire(String sourceLanguage, String targetLanguage) {
+        String key = key(sourceLanguage, targetLanguage);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            TranslatorOptions options = new TranslatorOptions.Builder()
+                    .setSourceLanguage(sourceLanguage)
+                    .setTargetLanguage(targetLanguage)
+                    .build();
+            entry = new Entry(sourceLanguage, targetLanguage, Translation.getClient(options));
+            entries.put(key, entry);
+        }
+        entry.references++;
+        entry.lastUsed = SystemClock.elapsedRealtime();
+        return entry.translator;
+    }
+
+    void release(String sourceLanguage, String targetLanguage) {
+        Entry entry = entries.get(key(sourceLanguage, targetLanguage));
+        if (entry == null || entry.references == 0) return;
+        entry.references--;
+        entry.lastUsed = SystemClock.elapsedRealtime();
+        trim(maxTranslators);
+    }
+
+    //Closes idle translators, least recently used first, until at most maxSize translators are left.
+    private void trim(int maxSize) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.references > 0) continue;
+            iterator.remove();
+            close(entry);
+        }
+    }
+
+    private void close(Entry entry) {
+        evictions++;
+        onEvictedListener.onEvicted(entry.translator);
+        entry.translator.close();
+    }
+
+    Map<String, Object> getContents() {
+        long now = SystemClock.elapsedRealtime();
+        List<Map<String, Object>> translators = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("source", entry.sourceLanguage);
+            item.put("target", entry.targetLanguage);
+            item.put("references", entry.references);
+            item.put("idleMillis", entry.references > 0 ? 0 : now - entry.lastUsed);
+            translators.add(item);
+        }
+        Map<String, Object> contents = new HashMap<>();
+        contents.put("translators", translators);
+        contents.put("maxTranslators", maxTranslators);
+        contents.put("evictions", evictions);
+        return contents;
+    }
+
+    void dispose() {
+        for (Entry entry : entries.values()) {
+            entry.translator.close();
+        }
+        entries.clear();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        //Idle translators can be created again when needed, drop all of them once the app is under pressure.
+        if (level >= TRIM_MEMORY_RUNNING_LOW) trim(0);
+    }
+
+    @Override
+    public void onLowMemory() {
+        trim(0);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration configuration) {
+    }
+
+    private static String key(String sourceLanguage, String targetLanguage) {
+        return sourceLanguage + ":" + targetLanguage;
+    }
+}
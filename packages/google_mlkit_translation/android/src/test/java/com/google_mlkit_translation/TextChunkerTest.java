@@ -0,0 +1,95 @@
+package com.google_mlkit_translation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public class TextChunkerTest {
+    private static String join(List<TextChunker.Chunk> chunks) {
+        StringBuilder builder = new StringBuilder();
+        for (TextChunker.Chunk chunk : chunks) {
+            builder.append(chunk.leading).append(chunk.content).append(chunk.trailing);
+        }
+        return builder.toString();
+    }
+
+    private static List<String> contents(List<TextChunker.Chunk> chunks) {
+        List<String> contents = new ArrayList<>();
+        for (TextChunker.Chunk chunk : chunks) contents.add(chunk.content);
+        return contents;
+    }
+
+    @Test
+    public void keepsWhitespaceAroundChunks() {
+        String text = "  First paragraph.\n\n\tSecond paragraph.  \r\n\nThird.\n";
+        List<TextChunker.Chunk> chunks = TextChunker.split(text, 100, Locale.ENGLISH);
+
+        assertEquals(Arrays.asList("First paragraph.", "Second paragraph.", "Third."), contents(chunks));
+        assertEquals("  ", chunks.get(0).leading);
+        assertEquals("\n\n\t", chunks.get(0).trailing + chunks.get(1).leading);
+        assertEquals("  \r\n\n", chunks.get(1).trailing + chunks.get(2).leading);
+        assertEquals("\n", chunks.get(2).trailing);
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void splitsLongParagraphAtSentences() {
+        String text = "The first sentence is here. The second one follows it. A third ends the paragraph.";
+        List<TextChunker.Chunk> chunks = TextChunker.split(text, 40, Locale.ENGLISH);
+
+        assertEquals(Arrays.asList("The first sentence is here.", "The second one follows it.",
+                "A third ends the paragraph."), contents(chunks));
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void splitsSentenceLongerThanLimitAtWords() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 60; i++) builder.append("word").append(i).append(' ');
+        String text = builder.append("end.").toString();
+        List<TextChunker.Chunk> chunks = TextChunker.split(text, 50, Locale.ENGLISH);
+
+        assertTrue(chunks.size() > 1);
+        for (TextChunker.Chunk chunk : chunks) {
+            assertTrue(chunk.content.length() <= 50);
+            assertFalse(chunk.content.isEmpty());
+        }
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void splitsWordLongerThanLimit() {
+        String text = "aaaaaaaaaaaaaaaaaaaaaaaaa";
+        List<TextChunker.Chunk> chunks = TextChunker.split(text, 10, Locale.ENGLISH);
+
+        assertEquals(Arrays.asList("aaaaaaaaaa", "aaaaaaaaaa", "aaaaa"), contents(chunks));
+        assertEquals(text, join(chunks));
+    }
+
+    @Test
+    public void rejoinsToExactOriginal() {
+        String[] texts = {
+                "",
+                "   ",
+                "\n\n",
+                "One line",
+                "Trailing newline\n",
+                "\n\nLeading blank lines. And two sentences.",
+                "Mixed\r\nline\rendings\n\n\n and  double  spaces.  ",
+                "Sentence one. Sentence two! Sentence three? " + "Sentence four is a little longer than the others.\n"
+                        + "\tIndented paragraph with a very long sentence that goes on and on without any stop at all",
+        };
+        for (String text : texts) {
+            for (int maxLength : new int[]{5, 20, 1000}) {
+                assertEquals(text, join(TextChunker.split(text, maxLength, Locale.ENGLISH)));
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
 export 'package:google_mlkit_commons/google_mlkit_commons.dart';
 
 export 'src/on_device_translator.dart';
+export 'src/translation_cache.dart';
+export 'src/translator_pool.dart';
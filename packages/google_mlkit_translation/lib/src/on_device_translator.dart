@@ -1,3 +1,5 @@
+import 'dart:async';
+
 import 'package:flutter/services.dart';
 import 'package:google_mlkit_commons/google_mlkit_commons.dart';
 
@@ -32,11 +34,190 @@ class OnDeviceTranslator {
     return result.toString();
   }
 
+  /// Translates the given [texts] from the source language into the target language.
+  ///
+  /// Duplicates are translated only once and the translations are returned in the same order as [texts].
+  /// If [onPartialResult] is given it is called as soon as each distinct text is translated,
+  /// with the positions of that text in [texts].
+  /// Only available on Android.
+  Future<List<String>> translateTexts(List<String> texts,
+      {void Function(List<int> indices, String translation)?
+          onPartialResult}) async {
+    final streamId = onPartialResult != null ? ResultStream.newStreamId() : null;
+    final subscription = streamId != null
+        ? ResultStream.events(streamId).listen((event) => onPartialResult!(
+            (event['indices'] as List).cast<int>(), event['translation']))
+        : null;
+    try {
+      final result = await _channel.invokeListMethod<String>(
+          'nlp#startLanguageTranslatorBatch', <String, dynamic>{
+        'id': id,
+        'texts': texts,
+        'source': sourceLanguage.bcpCode,
+        'target': targetLanguage.bcpCode,
+        if (streamId != null) 'streamId': streamId,
+      });
+      return result!;
+    } finally {
+      await subscription?.cancel();
+    }
+  }
+
+  /// Translates a long [text] chunk by chunk.
+  ///
+  /// The text is split at paragraph and sentence boundaries into chunks of at most [maxChunkLength] characters,
+  /// each translated chunk is emitted as soon as it is ready, so the beginning of the text can be shown early.
+  /// Joining the [TranslatedChunk.text] of all chunks by [TranslatedChunk.index] gives the whole translation.
+  /// Only available on Android.
+  Stream<TranslatedChunk> translateLongText(String text,
+      {int maxChunkLength = 500}) {
+    final streamId = ResultStream.newStreamId();
+    final controller = StreamController<TranslatedChunk>();
+    final subscription = ResultStream.events(streamId).listen((event) =>
+        controller.add(TranslatedChunk(
+            index: event['index'], count: event['count'], text: event['text'])));
+    controller.onCancel = subscription.cancel;
+
+    _channel.invokeMethod('nlp#startLanguageTranslatorLongText', <String, dynamic>{
+      'id': id,
+      'text': text,
+      'source': sourceLanguage.bcpCode,
+      'target': targetLanguage.bcpCode,
+      'streamId': streamId,
+      'maxChunkLength': maxChunkLength,
+    }).then((_) => controller.close(),
+        onError: (Object error, StackTrace stackTrace) {
+      controller.addError(error, stackTrace);
+      controller.close();
+    });
+
+    return controller.stream;
+  }
+
+  /// Translates [text] from [sourceLanguage] into each of the [targetLanguages] concurrently.
+  ///
+  /// The native side keeps one translator per language pair and reuses it across calls.
+  /// Returns the translation and latency for each target language.
+  /// Only available on Android.
+  static Future<Map<TranslateLanguage, TargetTranslation>> translateToTargets(
+      {required String text,
+      required TranslateLanguage sourceLanguage,
+      required List<TranslateLanguage> targetLanguages}) async {
+    final result = await _channel.invokeMapMethod<String, dynamic>(
+        'nlp#startLanguageTranslatorFanOut', <String, dynamic>{
+      'text': text,
+      'source': sourceLanguage.bcpCode,
+      'targets': targetLanguages.map((language) => language.bcpCode).toList(),
+    });
+    return {
+      for (final language in targetLanguages)
+        language: TargetTranslation.fromJson(result![language.bcpCode])
+    };
+  }
+
+  /// Identifies the language of [text] and translates it into [targetLanguage] in a single call.
+  ///
+  /// Identified languages with a confidence below [confidenceThreshold] are treated as undetermined.
+  /// Only available on Android.
+  static Future<DetectedTranslation> identifyAndTranslate(
+          {required String text,
+          required TranslateLanguage targetLanguage,
+          double confidenceThreshold = 0.5}) async =>
+      (await identifyAndTranslateAll(
+              texts: [text],
+              targetLanguage: targetLanguage,
+              confidenceThreshold: confidenceThreshold))
+          .first;
+
+  /// Identifies the language of each of the [texts] and translates them into [targetLanguage] in a single call.
+  ///
+  /// Texts in the same language are translated together, the results are returned in the same order as [texts].
+  /// Only available on Android.
+  static Future<List<DetectedTranslation>> identifyAndTranslateAll(
+      {required List<String> texts,
+      required TranslateLanguage targetLanguage,
+      double confidenceThreshold = 0.5}) async {
+    final result = await _channel.invokeListMethod<dynamic>(
+        'nlp#startLanguageTranslatorDetectAndTranslate', <String, dynamic>{
+      'texts': texts,
+      'target': targetLanguage.bcpCode,
+      'confidence': confidenceThreshold,
+    });
+    return result!.map((item) => DetectedTranslation.fromJson(item)).toList();
+  }
+
   /// Closes the translator and releases its resources.
   Future<void> close() =>
       _channel.invokeMethod('nlp#closeLanguageTranslator', {'id': id});
 }
 
+/// A translated chunk of a text translated with [OnDeviceTranslator.translateLongText].
+class TranslatedChunk {
+  /// The position of the chunk in the text.
+  final int index;
+
+  /// The number of chunks the text was split into.
+  final int count;
+
+  /// The translation of the chunk, including the whitespace around it in the original text.
+  final String text;
+
+  /// Constructor to create an instance of [TranslatedChunk].
+  TranslatedChunk(
+      {required this.index, required this.count, required this.text});
+}
+
+/// The translation of a text into one of the targets of [OnDeviceTranslator.translateToTargets].
+class TargetTranslation {
+  /// The translated text, null if the translation failed.
+  final String? translation;
+
+  /// The error if the translation failed.
+  final String? error;
+
+  /// The time taken to translate into this target.
+  final Duration latency;
+
+  /// Constructor to create an instance of [TargetTranslation].
+  TargetTranslation({this.translation, this.error, required this.latency});
+
+  /// Returns an instance of [TargetTranslation] from a given [json].
+  factory TargetTranslation.fromJson(Map<dynamic, dynamic> json) =>
+      TargetTranslation(
+          translation: json['translation'],
+          error: json['error'],
+          latency: Duration(milliseconds: json['latencyMillis']));
+}
+
+/// The result of [OnDeviceTranslator.identifyAndTranslate] for one text.
+class DetectedTranslation {
+  /// The BCP 47 language tag of the identified language, 'und' if it could not be determined.
+  final String? languageTag;
+
+  /// The identified language, null if it can not be translated.
+  final TranslateLanguage? sourceLanguage;
+
+  /// The translated text, null if the text could not be translated.
+  final String? translation;
+
+  /// The error if the text could not be translated.
+  final String? error;
+
+  /// Constructor to create an instance of [DetectedTranslation].
+  DetectedTranslation(
+      {this.languageTag, this.sourceLanguage, this.translation, this.error});
+
+  /// Returns an instance of [DetectedTranslation] from a given [json].
+  factory DetectedTranslation.fromJson(Map<dynamic, dynamic> json) =>
+      DetectedTranslation(
+          languageTag: json['language'],
+          sourceLanguage: json['source'] != null
+              ? BCP47Code.fromRawValue(json['source'])
+              : null,
+          translation: json['translation'],
+          error: json['error']);
+}
+
 /// A subclass of [ModelManager] that manages [TranslateRemoteModel] required to process the image.
 class OnDeviceTranslatorModelManager extends ModelManager {
   /// Constructor to create an instance of [OnDeviceTranslatorModelManager].
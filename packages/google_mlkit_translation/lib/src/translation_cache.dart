@@ -0,0 +1,62 @@
+import 'package:flutter/services.dart';
+
+/// Controls the native cache of translations shared by all [OnDeviceTranslator]s.
+///
+/// Translations are cached by source language, target language and text, the least recently used entries are evicted first.
+/// Only available on Android.
+class TranslationCache {
+  static const MethodChannel _channel =
+      MethodChannel('google_mlkit_on_device_translator');
+
+  /// Sets the maximum number of cached translations, 0 disables the cache.
+  /// If [persist] is true the cache is stored in an app-private file and restored on the next start.
+  static Future<void> configure({int maxEntries = 500, bool persist = false}) =>
+      _channel.invokeMethod('nlp#configureTranslationCache',
+          {'maxEntries': maxEntries, 'persist': persist});
+
+  /// Returns the current statistics of the cache.
+  static Future<TranslationCacheStats> getStats() async {
+    final result = await _channel
+        .invokeMapMethod<String, dynamic>('nlp#getTranslationCacheStats');
+    return TranslationCacheStats.fromJson(result!);
+  }
+
+  /// Removes all cached translations, including the persisted ones.
+  static Future<void> clear() =>
+      _channel.invokeMethod('nlp#clearTranslationCache');
+}
+
+/// Statistics of the [TranslationCache].
+class TranslationCacheStats {
+  /// Number of translations served from the cache.
+  final int hits;
+
+  /// Number of translations not found in the cache.
+  final int misses;
+
+  /// Ratio of [hits] to all lookups.
+  final double hitRatio;
+
+  /// Number of cached translations.
+  final int entries;
+
+  /// Approximate memory used by the cached translations, in bytes.
+  final int memoryBytes;
+
+  /// Constructor to create an instance of [TranslationCacheStats].
+  TranslationCacheStats(
+      {required this.hits,
+      required this.misses,
+      required this.hitRatio,
+      required this.entries,
+      required this.memoryBytes});
+
+  /// Returns an instance of [TranslationCacheStats] from a given [json].
+  factory TranslationCacheStats.fromJson(Map<String, dynamic> json) =>
+      TranslationCacheStats(
+          hits: json['hits'],
+          misses: json['misses'],
+          hitRatio: json['hitRatio'],
+          entries: json['entries'],
+          memoryBytes: json['memoryBytes']);
+}
@@ -0,0 +1,81 @@
+import 'package:flutter/services.dart';
+
+/// Controls the native pool of translators shared by all [OnDeviceTranslator]s.
+///
+/// Translators are shared by language pair, so translators for the same pair load the model only once.
+/// Closed translators stay in the pool for reuse until the pool grows over its budget or the system runs low on memory,
+/// then the least recently used ones are released first.
+/// Only available on Android.
+class TranslatorPool {
+  static const MethodChannel _channel =
+      MethodChannel('google_mlkit_on_device_translator');
+
+  /// Sets the maximum number of translators kept in the pool.
+  /// Translators in use are never released, so the pool can temporarily hold more of them.
+  static Future<void> configure({int maxTranslators = 4}) => _channel.invokeMethod(
+      'nlp#configureTranslatorPool', {'maxTranslators': maxTranslators});
+
+  /// Returns the translators currently in the pool.
+  static Future<TranslatorPoolContents> getContents() async {
+    final result = await _channel
+        .invokeMapMethod<String, dynamic>('nlp#getTranslatorPoolContents');
+    return TranslatorPoolContents.fromJson(result!);
+  }
+}
+
+/// The contents of the [TranslatorPool].
+class TranslatorPoolContents {
+  /// The translators in the pool.
+  final List<PooledTranslator> translators;
+
+  /// The maximum number of translators kept in the pool.
+  final int maxTranslators;
+
+  /// Number of translators released since the plugin was attached.
+  final int evictions;
+
+  /// Constructor to create an instance of [TranslatorPoolContents].
+  TranslatorPoolContents(
+      {required this.translators,
+      required this.maxTranslators,
+      required this.evictions});
+
+  /// Returns an instance of [TranslatorPoolContents] from a given [json].
+  factory TranslatorPoolContents.fromJson(Map<String, dynamic> json) =>
+      TranslatorPoolContents(
+          translators: (json['translators'] as List)
+              .map((item) => PooledTranslator.fromJson(item))
+              .toList(),
+          maxTranslators: json['maxTranslators'],
+          evictions: json['evictions']);
+}
+
+/// A translator in the [TranslatorPool].
+class PooledTranslator {
+  /// The BCP-47 code of the source language.
+  final String sourceLanguage;
+
+  /// The BCP-47 code of the target language.
+  final String targetLanguage;
+
+  /// Number of users of the translator, 0 if it is idle.
+  final int references;
+
+  /// The time since the translator was last used, zero if it is in use.
+  final Duration idleTime;
+
+  /// Constructor to create an instance of [PooledTranslator].
+  PooledTranslator(
+      {required this.sourceLanguage,
+      required this.targetLanguage,
+      required this.references,
+      required this.idleTime});
+
+  /// Returns an instance of [PooledTranslator] from a given [json].
+  factory PooledTranslator.fromJson(Map<dynamic, dynamic> json) =>
+      PooledTranslator(
+          sourceLanguage: json['source'],
+          targetLanguage: json['target'],
+          references: json['references'],
+          idleTime: Duration(milliseconds: json['idleMillis']));
+}